@@ -2,6 +2,7 @@ package com.cache.springboot3cache;
 
 import com.cache.springboot3cache.service.CacheService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -26,6 +27,10 @@ public class Application implements CommandLineRunner {
     @Autowired
     private CacheManager cacheManager;
 
+    // 是否启动缓存测试线程，压测等场景下关闭
+    @Value("${cache.demo.poller.enabled:true}")
+    private boolean pollerEnabled;
+
     // 控制测试线程运行的标志位
     private volatile boolean running = true;
     // 测试线程
@@ -44,6 +49,10 @@ public class Application implements CommandLineRunner {
         System.out.println("Using CacheManager: " + cacheManager.getClass().getName());
         System.out.println("Cache Names: " + cacheManager.getCacheNames());
 
+        if (!pollerEnabled) {
+            return;
+        }
+
         testThread = new Thread(() -> {
             while (running) {
                 try {
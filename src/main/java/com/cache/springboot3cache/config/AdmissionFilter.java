@@ -0,0 +1,104 @@
+package com.cache.springboot3cache.config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个缓存的写入准入过滤（TinyLFU）
+ * 每次查询记录 Key 的访问频率，加载出的值只有在近期被请求过多次时才写入 Redis，
+ * 避免扫描、爬虫等只访问一次的 Key 占用 Redis 内存和写入带宽。
+ */
+public class AdmissionFilter {
+
+    private final String name;
+    private final FrequencySketch sketch;
+    private final int minFrequency;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder agings = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param name 缓存名称
+     * @param expectedKeys 预计的活跃 Key 数量
+     * @param minFrequency 写入所需的最少访问次数（含本次）
+     */
+    public AdmissionFilter(String name, int expectedKeys, int minFrequency) {
+        this.name = name;
+        this.sketch = new FrequencySketch(expectedKeys);
+        this.minFrequency = Math.max(1, minFrequency);
+    }
+
+    public void recordAccess(String redisKey) {
+        if (sketch.increment(spread(redisKey.hashCode()))) {
+            agings.increment();
+        }
+    }
+
+    /**
+     * 判断加载出的值是否写入 Redis
+     */
+    public boolean admit(String redisKey) {
+        if (sketch.frequency(spread(redisKey.hashCode())) >= minFrequency) {
+            admitted.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+
+    public Stats getStats() {
+        return new Stats(name, admitted.sum(), rejected.sum(), agings.sum());
+    }
+
+    /**
+     * 准入统计
+     */
+    public static final class Stats {
+        private final String name;
+        private final long admitted;
+        private final long rejected;
+        private final long agings;
+
+        Stats(String name, long admitted, long rejected, long agings) {
+            this.name = name;
+            this.admitted = admitted;
+            this.rejected = rejected;
+            this.agings = agings;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getAdmitted() {
+            return admitted;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getAgings() {
+            return agings;
+        }
+
+        public double getAdmissionRate() {
+            long total = admitted + rejected;
+            return total == 0 ? 0 : (double) admitted / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: admitted=%d, rejected=%d, admissionRate=%.2f, agings=%d",
+                    name, admitted, rejected, getAdmissionRate(), agings);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cache.springboot3cache.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按缓存名称管理写入准入过滤
+ * 只有 cacheNames 带 #tinylfu 选项的缓存才会创建
+ */
+public class AdmissionFilters {
+
+    private final int expectedKeys;
+    private final int minFrequency;
+    private final Map<String, AdmissionFilter> filters = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param expectedKeys 每个缓存预计的活跃 Key 数量
+     * @param minFrequency 写入所需的最少访问次数（含本次）
+     */
+    public AdmissionFilters(int expectedKeys, int minFrequency) {
+        this.expectedKeys = expectedKeys;
+        this.minFrequency = minFrequency;
+    }
+
+    public AdmissionFilter filterFor(String cacheName) {
+        return filters.computeIfAbsent(cacheName, name -> new AdmissionFilter(name, expectedKeys, minFrequency));
+    }
+
+    /**
+     * 所有准入过滤的统计
+     */
+    public List<AdmissionFilter.Stats> getStats() {
+        List<AdmissionFilter.Stats> stats = new ArrayList<>();
+        for (AdmissionFilter filter : filters.values()) {
+            stats.add(filter.getStats());
+        }
+        return stats;
+    }
+}
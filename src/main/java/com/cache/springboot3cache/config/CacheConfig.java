@@ -3,13 +3,19 @@ package com.cache.springboot3cache.config;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.CacheOperationSource;
 import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
@@ -20,6 +26,7 @@ import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSeriali
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
 
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionHandler;
@@ -27,6 +34,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Configuration
+@ImportRuntimeHints(CacheRuntimeHints.class)
 public class CacheConfig implements CachingConfigurer {
 
     // 使用 ObjectProvider 延迟获取 Bean，解决循环依赖问题，比 @Lazy 更优雅
@@ -85,6 +93,73 @@ public class CacheConfig implements CachingConfigurer {
         return template;
     }
 
+    /**
+     * 从节点读取使用的 RedisCacheWriter
+     * 主连接由 Redisson 配置创建时不支持从节点读取模式，使用 #replica / #nearest 会在解析缓存时报错
+     */
+    @Bean
+    public ReplicaCacheWriters replicaCacheWriters(RedisProperties redisProperties, RedisConnectionFactory connectionFactory,
+                                                   @Value("${spring.redis.redisson.config:}") String redissonConfig,
+                                                   @Value("${spring.redis.redisson.file:}") String redissonFile) {
+        String redissonConfigSource = null;
+        if (StringUtils.hasText(redissonConfig)) {
+            redissonConfigSource = "spring.redis.redisson.config";
+        } else if (StringUtils.hasText(redissonFile)) {
+            redissonConfigSource = "spring.redis.redisson.file";
+        }
+        return new ReplicaCacheWriters(redisProperties, RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), redissonConfigSource);
+    }
+
+    /**
+     * 刷新失败退避策略
+     * cache.refresh.backoff-initial-ms / backoff-max-ms：刷新失败后的指数退避区间
+     * cache.refresh.stale-if-error-seconds：刷新失败时旧值最多可额外保留的时间
+     */
+    @Bean
+    public RefreshBackoff refreshBackoff(@Value("${cache.refresh.backoff-initial-ms:1000}") long initialBackoffMillis,
+                                         @Value("${cache.refresh.backoff-max-ms:60000}") long maxBackoffMillis,
+                                         @Value("${cache.refresh.stale-if-error-seconds:300}") long staleIfErrorSeconds) {
+        return new RefreshBackoff(initialBackoffMillis, maxBackoffMillis, staleIfErrorSeconds);
+    }
+
+    /**
+     * 堆外本地缓存，cacheNames 带 #offheap 的缓存使用
+     * cache.offheap.capacity-mb：每个缓存的堆外容量
+     * cache.offheap.segments：段数量，单个值不能超过 容量 / 段数量
+     * cache.offheap.ttl-seconds：本地条目存活时间，决定其他节点更新后本地最多滞后多久
+     */
+    @Bean
+    public OffHeapStores offHeapStores(@Value("${cache.offheap.capacity-mb:64}") long capacityMb,
+                                       @Value("${cache.offheap.segments:16}") int segments,
+                                       @Value("${cache.offheap.ttl-seconds:10}") long ttlSeconds) {
+        return new OffHeapStores(capacityMb * 1024 * 1024, segments, ttlSeconds * 1000);
+    }
+
+    /**
+     * 异步写入（write-behind），cacheNames 带 #writebehind 的缓存使用
+     * cache.write-behind.batch-size：每批 pipeline 写入的条目数，积压达到该值时立即刷写
+     * cache.write-behind.flush-interval-ms：定时刷写间隔，决定写入 Redis 的最大延迟
+     * cache.write-behind.max-pending：每个缓存最多积压的条目数，超出后写入线程同步刷写
+     */
+    @Bean
+    public WriteBehindBuffers writeBehindBuffers(StringRedisTemplate stringRedisTemplate,
+                                                 @Value("${cache.write-behind.batch-size:100}") int batchSize,
+                                                 @Value("${cache.write-behind.flush-interval-ms:100}") long flushIntervalMillis,
+                                                 @Value("${cache.write-behind.max-pending:10000}") int maxPending) {
+        return new WriteBehindBuffers(stringRedisTemplate, batchSize, maxPending, flushIntervalMillis);
+    }
+
+    /**
+     * 写入准入过滤（TinyLFU），cacheNames 带 #tinylfu 的缓存使用，只对 sync = true 的 @Cacheable 生效
+     * cache.admission.expected-keys：每个缓存预计的活跃 Key 数量，决定频率统计的大小
+     * cache.admission.min-frequency：加载出的值写入 Redis 所需的最少访问次数（含本次）
+     */
+    @Bean
+    public AdmissionFilters admissionFilters(@Value("${cache.admission.expected-keys:65536}") int expectedKeys,
+                                             @Value("${cache.admission.min-frequency:2}") int minFrequency) {
+        return new AdmissionFilters(expectedKeys, minFrequency);
+    }
+
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
         RedisCacheWriter writer = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
@@ -94,14 +169,63 @@ public class CacheConfig implements CachingConfigurer {
         return new RedisCacheManager(writer, config);
     }
 
+    /**
+     * Redis 服务器时钟，缓存的创建时间和刷新判断以 Redis TIME 为准
+     * cache.clock.redis-time：是否使用 Redis 时间，关闭时使用本机时间
+     * cache.clock.sync-interval-seconds：重新同步时间差的间隔
+     */
+    @Bean
+    public RedisClock redisClock(StringRedisTemplate stringRedisTemplate,
+                                 @Value("${cache.clock.redis-time:true}") boolean redisTime,
+                                 @Value("${cache.clock.sync-interval-seconds:60}") long syncIntervalSeconds) {
+        return new RedisClock(redisTime ? stringRedisTemplate : null, syncIntervalSeconds * 1000);
+    }
+
+    /**
+     * 缓存使用情况采样，供 /actuator/cacheinsight 使用
+     * cache.insight.max-scan-keys：每次采样最多 SCAN 的 Key 数量
+     * cache.insight.samples-per-cache：每个缓存执行 MEMORY USAGE 的 Key 数量
+     * cache.insight.pause-ms：每 100 个 Key 之间的暂停，避免持续占用 Redis
+     * cache.insight.min-interval-seconds：两次采样的最小间隔，期间返回上次结果
+     * cache.insight.top-n / hot-key-sample-rate：热点 Key 数量及访问采样率
+     */
+    @Bean
+    public CacheInsight cacheInsight(StringRedisTemplate stringRedisTemplate, RedisClock redisClock,
+                                     @Value("${cache.insight.max-scan-keys:100000}") int maxScanKeys,
+                                     @Value("${cache.insight.samples-per-cache:200}") int samplesPerCache,
+                                     @Value("${cache.insight.pause-ms:5}") long pauseMillis,
+                                     @Value("${cache.insight.min-interval-seconds:30}") long minIntervalSeconds,
+                                     @Value("${cache.insight.top-n:20}") int topN,
+                                     @Value("${cache.insight.hot-key-sample-rate:16}") int hotKeySampleRate) {
+        return new CacheInsight(stringRedisTemplate, redisClock, maxScanKeys, samplesPerCache, pauseMillis, minIntervalSeconds * 1000, topN, hotKeySampleRate);
+    }
+
+    @Bean
+    public CacheInsightEndpoint cacheInsightEndpoint(CacheInsight cacheInsight, OffHeapStores offHeapStores, AdmissionFilters admissionFilters, RedisClock redisClock) {
+        return new CacheInsightEndpoint(cacheInsight, offHeapStores, admissionFilters, redisClock);
+    }
+
+    /**
+     * 启动时预先解析所有缓存注解的 cacheNames 并预热连接，cache.startup.prepare=false 时关闭
+     */
+    @Bean
+    @ConditionalOnProperty(name = "cache.startup.prepare", havingValue = "true", matchIfMissing = true)
+    public CacheSpecRegistrar cacheSpecRegistrar(ConfigurableListableBeanFactory beanFactory, CacheOperationSource cacheOperationSource) {
+        return new CacheSpecRegistrar(beanFactory, cacheOperationSource, cacheResolverProvider);
+    }
+
+    /**
+     * cache.request-memo.enabled：开启后同一个 Web 请求内相同（缓存, Key）的读取只访问一次 Redis
+     */
     @Bean
-    public CacheResolver myCacheResolver(CacheManager cacheManager, RedisConnectionFactory connectionFactory, Executor cacheRefreshExecutor, StringRedisTemplate stringRedisTemplate, RedisTemplate<Object, Object> redisTemplate) {
+    public CacheResolver myCacheResolver(CacheManager cacheManager, RedisConnectionFactory connectionFactory, Executor cacheRefreshExecutor, StringRedisTemplate stringRedisTemplate, RedisTemplate<Object, Object> redisTemplate, ReplicaCacheWriters replicaCacheWriters, RefreshBackoff refreshBackoff, OffHeapStores offHeapStores, WriteBehindBuffers writeBehindBuffers, AdmissionFilters admissionFilters, RedisClock redisClock, CacheInsight cacheInsight,
+                                         @Value("${cache.request-memo.enabled:false}") boolean requestMemoEnabled) {
         RedisCacheWriter writer = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
         
-        return new MyCacheResolver(cacheManager, writer, config, cacheRefreshExecutor, stringRedisTemplate, redisTemplate);
+        return new MyCacheResolver(cacheManager, writer, config, cacheRefreshExecutor, stringRedisTemplate, redisTemplate, replicaCacheWriters, refreshBackoff, offHeapStores, writeBehindBuffers, admissionFilters, redisClock, cacheInsight, requestMemoEnabled);
     }
 
     @Override
@@ -0,0 +1,338 @@
+package com.cache.springboot3cache.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 缓存使用情况采样
+ * 记录 MyCacheResolver 解析过的缓存（名称、物理 TTL、刷新时间）及各自的热点 Key；
+ * 生成报告时用一次 SCAN 遍历 Key 空间，按缓存名称前缀分组计数，每个缓存随机抽取部分 Key，
+ * 通过 Lua 脚本一次取得 MEMORY USAGE、PTTL 和值头部（解析创建时间），统计大小分布和年龄分布。
+ * 遍历的 Key 数量有上限，每批之间暂停，且两次采样之间有最小间隔，不会对 Redis 造成明显压力。
+ */
+public class CacheInsight {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInsight.class);
+    private static final String KEY_SEPARATOR = "::";
+    private static final String LOCK_SUFFIX = "~lock";
+    private static final String BACKOFF_SUFFIX = "~backoff";
+    private static final int SCAN_BATCH = 100;
+    // 值头部长度，足够包含 RefreshWrapper 的类名和创建时间
+    private static final int HEADER_BYTES = 128;
+    private static final Pattern CREATE_TIME = Pattern.compile("\"createTime\":(\\d+)");
+    private static final long[] SIZE_BUCKETS = {256, 1024, 4 * 1024, 16 * 1024, 64 * 1024};
+    private static final String[] SIZE_LABELS = {"<256B", "256B-1KB", "1KB-4KB", "4KB-16KB", "16KB-64KB", ">=64KB"};
+    private static final String[] AGE_LABELS = {"0-25%", "25-50%", "50-75%", "75-100%", ">100%"};
+    private static final RedisScript<List<Object>> SAMPLE_SCRIPT = listScript(
+            "local memory = redis.call('MEMORY', 'USAGE', KEYS[1]) " +
+            "if not memory then return {} end " +
+            "local ok, head = pcall(redis.call, 'GETRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1) " +
+            "if not ok then head = '' end " +
+            "return {memory, redis.call('PTTL', KEYS[1]), head}");
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisClock clock;
+    private final int maxScanKeys;
+    private final int samplesPerCache;
+    private final long pauseMillis;
+    private final long minIntervalMillis;
+    private final int topN;
+    private final int hotKeySampleRate;
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    private final AtomicBoolean sampling = new AtomicBoolean(false);
+    private volatile Map<String, Object> lastReport;
+    private volatile long lastReportTime;
+
+    /**
+     * 构造函数
+     *
+     * @param stringRedisTemplate 用于 SCAN 和采样脚本
+     * @param clock Redis 服务器时钟，用于计算年龄
+     * @param maxScanKeys 每次采样最多遍历的 Key 数量
+     * @param samplesPerCache 每个缓存抽取的 Key 数量
+     * @param pauseMillis 每批（100 个 Key）之间的暂停时间
+     * @param minIntervalMillis 两次采样的最小间隔，期间返回上一次的结果
+     * @param topN 每个缓存报告的热点 Key 数量
+     * @param hotKeySampleRate 热点 Key 统计的采样率
+     */
+    public CacheInsight(StringRedisTemplate stringRedisTemplate, RedisClock clock, int maxScanKeys, int samplesPerCache, long pauseMillis, long minIntervalMillis, int topN, int hotKeySampleRate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.clock = clock;
+        this.maxScanKeys = maxScanKeys;
+        this.samplesPerCache = samplesPerCache;
+        this.pauseMillis = pauseMillis;
+        this.minIntervalMillis = minIntervalMillis;
+        this.topN = topN;
+        this.hotKeySampleRate = hotKeySampleRate;
+    }
+
+    /**
+     * 登记解析出的缓存
+     *
+     * @param name 缓存名称（Key 前缀）
+     * @param ttlMillis 物理过期时间
+     * @param refreshAgeMillis 触发刷新的年龄，不刷新的缓存为 -1
+     * @return 该缓存的热点 Key 统计
+     */
+    public HotKeyTracker register(String name, long ttlMillis, long refreshAgeMillis) {
+        Registration registration = registrations.get(name);
+        if (registration == null) {
+            registration = registrations.computeIfAbsent(name, n -> new Registration(ttlMillis, refreshAgeMillis, new HotKeyTracker(topN * 5, hotKeySampleRate)));
+        }
+        return registration.hotKeys;
+    }
+
+    /**
+     * 生成报告；距上次采样不足最小间隔或正在采样时返回上一次的结果
+     */
+    public Map<String, Object> report() {
+        Map<String, Object> report = lastReport;
+        if (report != null && System.currentTimeMillis() - lastReportTime < minIntervalMillis) {
+            return report;
+        }
+        if (!sampling.compareAndSet(false, true)) {
+            return report != null ? report : Collections.singletonMap("status", "sampling in progress");
+        }
+        try {
+            report = sample();
+            lastReport = report;
+            lastReportTime = System.currentTimeMillis();
+            return report;
+        } finally {
+            sampling.set(false);
+        }
+    }
+
+    private Map<String, Object> sample() {
+        long start = System.currentTimeMillis();
+        Map<String, CacheSample> samples = new LinkedHashMap<>();
+        for (String name : registrations.keySet()) {
+            samples.put(name, new CacheSample(samplesPerCache));
+        }
+
+        ScanResult scan = scan(samples);
+        Long dbSize = stringRedisTemplate.execute((RedisCallback<Long>) connection -> connection.serverCommands().dbSize());
+
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (Map.Entry<String, CacheSample> entry : samples.entrySet()) {
+            Registration registration = registrations.get(entry.getKey());
+            caches.put(entry.getKey(), describe(registration, entry.getValue(), scan, dbSize));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sampledAt", start);
+        report.put("durationMs", System.currentTimeMillis() - start);
+        report.put("scannedKeys", scan.scanned);
+        report.put("scanComplete", scan.complete);
+        report.put("dbSize", dbSize);
+        report.put("caches", caches);
+        return report;
+    }
+
+    /**
+     * 遍历 Key 空间，按缓存名称分组计数并做蓄水池抽样；集群模式下逐个主节点遍历
+     */
+    private ScanResult scan(Map<String, CacheSample> samples) {
+        ScanResult result = new ScanResult();
+        ScanOptions options = ScanOptions.scanOptions().count(SCAN_BATCH).build();
+        stringRedisTemplate.execute((RedisCallback<Void>) connection -> {
+            if (connection instanceof RedisClusterConnection) {
+                RedisClusterConnection cluster = (RedisClusterConnection) connection;
+                for (RedisClusterNode master : cluster.clusterGetMasterReplicaMap().keySet()) {
+                    if (!scanCursor(cluster.scan(master, options), samples, result)) {
+                        return null;
+                    }
+                }
+            } else {
+                scanCursor(connection.keyCommands().scan(options), samples, result);
+            }
+            return null;
+        });
+        return result;
+    }
+
+    /**
+     * 返回多值列表的脚本，DefaultRedisScript 只接受原始的 List.class 作为结果类型
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisScript<List<Object>> listScript(String script) {
+        return new DefaultRedisScript<>(script, (Class<List<Object>>) (Class<?>) List.class);
+    }
+
+    /**
+     * @return 是否遍历完该游标（未达到遍历上限）
+     */
+    private boolean scanCursor(Cursor<byte[]> cursor, Map<String, CacheSample> samples, ScanResult result) {
+        try (cursor) {
+            while (cursor.hasNext()) {
+                if (result.scanned >= maxScanKeys) {
+                    result.complete = false;
+                    return false;
+                }
+                String key = new String(cursor.next(), StandardCharsets.UTF_8);
+                result.scanned++;
+                if (result.scanned % SCAN_BATCH == 0) {
+                    pause();
+                }
+                int separator = key.indexOf(KEY_SEPARATOR);
+                if (separator <= 0 || key.endsWith(LOCK_SUFFIX) || key.endsWith(BACKOFF_SUFFIX)) {
+                    continue;
+                }
+                CacheSample sample = samples.get(key.substring(0, separator));
+                if (sample != null) {
+                    sample.offer(key);
+                }
+            }
+        }
+        return true;
+    }
+
+    private Map<String, Object> describe(Registration registration, CacheSample sample, ScanResult scan, Long dbSize) {
+        long[] sizeHistogram = new long[SIZE_LABELS.length];
+        long[] ageHistogram = new long[AGE_LABELS.length];
+        long totalBytes = 0;
+        long maxBytes = 0;
+        int measured = 0;
+        long now = clock.currentTimeMillis();
+        // 刷新缓存按刷新时间，不刷新的缓存按物理 TTL 划分年龄
+        long ageWindow = registration.refreshAgeMillis > 0 ? registration.refreshAgeMillis : registration.ttlMillis;
+
+        for (String key : sample.reservoir) {
+            List<Object> values;
+            try {
+                values = stringRedisTemplate.execute(SAMPLE_SCRIPT, Collections.singletonList(key), String.valueOf(HEADER_BYTES));
+            } catch (Exception e) {
+                logger.debug("Failed to sample cache key: {}", key, e);
+                continue;
+            }
+            if (values == null || values.size() < 3) {
+                continue;
+            }
+            long bytes = ((Number) values.get(0)).longValue();
+            measured++;
+            totalBytes += bytes;
+            maxBytes = Math.max(maxBytes, bytes);
+            sizeHistogram[sizeBucket(bytes)]++;
+
+            Matcher matcher = CREATE_TIME.matcher(String.valueOf(values.get(2)));
+            if (matcher.find() && ageWindow > 0) {
+                long age = Math.max(0, now - Long.parseLong(matcher.group(1)));
+                int bucket = (int) Math.min(AGE_LABELS.length - 1, age * 4 / ageWindow);
+                ageHistogram[bucket]++;
+            }
+            if (measured % SCAN_BATCH == 0) {
+                pause();
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("ttlSeconds", registration.ttlMillis / 1000);
+        result.put("refreshAgeSeconds", registration.refreshAgeMillis > 0 ? registration.refreshAgeMillis / 1000 : -1);
+        result.put("entriesSeen", sample.seen);
+        // 未遍历完时按遍历比例估算总数
+        if (scan.complete || dbSize == null || scan.scanned == 0) {
+            result.put("estimatedEntries", sample.seen);
+        } else {
+            result.put("estimatedEntries", sample.seen * dbSize / scan.scanned);
+        }
+        result.put("sampledEntries", measured);
+        result.put("avgBytes", measured == 0 ? 0 : totalBytes / measured);
+        result.put("maxBytes", maxBytes);
+        result.put("estimatedBytes", measured == 0 ? 0 : (totalBytes / measured) * (long) result.get("estimatedEntries"));
+        result.put("sizeHistogram", histogram(SIZE_LABELS, sizeHistogram));
+        result.put(registration.refreshAgeMillis > 0 ? "ageOfRefreshWindow" : "ageOfTtl", histogram(AGE_LABELS, ageHistogram));
+        result.put("hotKeys", registration.hotKeys.top(topN));
+        return result;
+    }
+
+    private static int sizeBucket(long bytes) {
+        for (int i = 0; i < SIZE_BUCKETS.length; i++) {
+            if (bytes < SIZE_BUCKETS[i]) {
+                return i;
+            }
+        }
+        return SIZE_BUCKETS.length;
+    }
+
+    private static Map<String, Long> histogram(String[] labels, long[] counts) {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i++) {
+            histogram.put(labels[i], counts[i]);
+        }
+        return histogram;
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Registration {
+        private final long ttlMillis;
+        private final long refreshAgeMillis;
+        private final HotKeyTracker hotKeys;
+
+        private Registration(long ttlMillis, long refreshAgeMillis, HotKeyTracker hotKeys) {
+            this.ttlMillis = ttlMillis;
+            this.refreshAgeMillis = refreshAgeMillis;
+            this.hotKeys = hotKeys;
+        }
+    }
+
+    /**
+     * 单个缓存的蓄水池抽样
+     */
+    private static final class CacheSample {
+        private final int capacity;
+        private final List<String> reservoir = new ArrayList<>();
+        private long seen;
+
+        private CacheSample(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void offer(String key) {
+            seen++;
+            if (reservoir.size() < capacity) {
+                reservoir.add(key);
+            } else {
+                long index = ThreadLocalRandom.current().nextLong(seen);
+                if (index < capacity) {
+                    reservoir.set((int) index, key);
+                }
+            }
+        }
+    }
+
+    private static final class ScanResult {
+        private long scanned;
+        private boolean complete = true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.cache.springboot3cache.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 缓存使用情况端点：/actuator/cacheinsight
+ * 各缓存的条目数、大小分布、年龄分布和热点 Key（采样），以及堆外缓存、准入过滤和时钟同步的状态。
+ * 结果包含缓存 Key，默认不通过 HTTP 暴露，需要时在独立的管理端口（management.server.port）上开启。
+ */
+@Endpoint(id = "cacheinsight")
+public class CacheInsightEndpoint {
+
+    private final CacheInsight cacheInsight;
+    private final OffHeapStores offHeapStores;
+    private final AdmissionFilters admissionFilters;
+    private final RedisClock redisClock;
+
+    public CacheInsightEndpoint(CacheInsight cacheInsight, OffHeapStores offHeapStores, AdmissionFilters admissionFilters, RedisClock redisClock) {
+        this.cacheInsight = cacheInsight;
+        this.offHeapStores = offHeapStores;
+        this.admissionFilters = admissionFilters;
+        this.redisClock = redisClock;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>(cacheInsight.report());
+        report.put("offHeap", offHeapStores.getStats());
+        report.put("admission", admissionFilters.getStats());
+
+        Map<String, Object> clock = new LinkedHashMap<>();
+        clock.put("offsetMillis", redisClock.getOffsetMillis());
+        clock.put("lastRttMicros", redisClock.getLastRttMicros());
+        clock.put("lastSyncTime", redisClock.getLastSyncTime());
+        report.put("clock", clock);
+        return report;
+    }
+}
@@ -0,0 +1,42 @@
+package com.cache.springboot3cache.config;
+
+import io.lettuce.core.ReadFrom;
+
+/**
+ * 缓存读取路由模式
+ * 通过 cacheNames 的可选后缀指定，例如 test3#15#1#replica
+ * 写操作和分布式锁始终走主节点，只有读取会被路由
+ */
+public enum CacheReadMode {
+    // 默认：读主节点
+    MASTER(null),
+    // 优先读从节点，从节点不可用时回退到主节点
+    REPLICA_PREFERRED(ReadFrom.REPLICA_PREFERRED),
+    // 读延迟最低的节点（主或从）
+    NEAREST(ReadFrom.LOWEST_LATENCY);
+
+    private final ReadFrom readFrom;
+
+    CacheReadMode(ReadFrom readFrom) {
+        this.readFrom = readFrom;
+    }
+
+    public ReadFrom getReadFrom() {
+        return readFrom;
+    }
+
+    /**
+     * 解析 cacheNames 中的读取选项
+     *
+     * @param option 选项，如 replica / nearest
+     * @return 对应的读取模式，不认识的选项返回 null
+     */
+    public static CacheReadMode fromOption(String option) {
+        switch (option.toLowerCase()) {
+            case "master": return MASTER;
+            case "replica": return REPLICA_PREFERRED;
+            case "nearest": return NEAREST;
+            default: return null;
+        }
+    }
+}
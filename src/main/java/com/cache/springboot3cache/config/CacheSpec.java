@@ -0,0 +1,150 @@
+package com.cache.springboot3cache.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 解析后的 cacheNames 配置
+ * 格式：name#expire#refresh 或 name#expire，末尾可追加 #replica / #nearest / #master / #offheap / #writebehind / #tinylfu。
+ * 同一个 cacheNames 只解析一次，由 MyCacheResolver 缓存，启动时由 CacheSpecRegistrar 预先解析和校验。
+ */
+public class CacheSpec {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSpec.class);
+    private static final Pattern PATTERN_WITH_REFRESH = Pattern.compile("(.+)#(\\d+)#(\\d+)");
+    private static final Pattern PATTERN_ONLY_EXPIRE = Pattern.compile("(.+)#(\\d+)");
+    // 末尾的可选项
+    private static final Pattern PATTERN_OPTION = Pattern.compile("(.+)#([a-zA-Z][\\w-]*)$");
+
+    private final String cacheName;
+    private final String name;
+    private final long expireSeconds;
+    // 触发刷新的年龄（秒），不刷新的缓存为 -1
+    private final long refreshAgeSeconds;
+    // Redis 中的物理过期时间（秒）
+    private final long physicalTtlSeconds;
+    private final CacheReadMode readMode;
+    private final boolean offHeap;
+    private final boolean writeBehind;
+    private final boolean tinyLfu;
+
+    private CacheSpec(String cacheName, String name, long expireSeconds, long refreshAgeSeconds, long physicalTtlSeconds, CacheReadMode readMode, boolean offHeap, boolean writeBehind, boolean tinyLfu) {
+        this.cacheName = cacheName;
+        this.name = name;
+        this.expireSeconds = expireSeconds;
+        this.refreshAgeSeconds = refreshAgeSeconds;
+        this.physicalTtlSeconds = physicalTtlSeconds;
+        this.readMode = readMode;
+        this.offHeap = offHeap;
+        this.writeBehind = writeBehind;
+        this.tinyLfu = tinyLfu;
+    }
+
+    /**
+     * 解析 cacheNames
+     *
+     * @return 解析结果，不带过期时间的普通名称返回 null
+     */
+    public static CacheSpec parse(String cacheName) {
+        // 0. 剥离末尾的可选项，剩余部分按 name#expire#refresh / name#expire 解析
+        String spec = cacheName;
+        CacheReadMode readMode = CacheReadMode.MASTER;
+        boolean offHeap = false;
+        boolean writeBehind = false;
+        boolean tinyLfu = false;
+        Matcher matcherOption = PATTERN_OPTION.matcher(spec);
+        while (matcherOption.matches() && PATTERN_ONLY_EXPIRE.matcher(matcherOption.group(1)).find()) {
+            String option = matcherOption.group(2);
+            CacheReadMode mode = CacheReadMode.fromOption(option);
+            if (mode != null) {
+                readMode = mode;
+            } else if ("offheap".equalsIgnoreCase(option)) {
+                offHeap = true;
+            } else if ("writebehind".equalsIgnoreCase(option)) {
+                writeBehind = true;
+            } else if ("tinylfu".equalsIgnoreCase(option)) {
+                tinyLfu = true;
+            } else {
+                logger.warn("Unknown cache option '{}' in '{}', ignored.", option, cacheName);
+            }
+            spec = matcherOption.group(1);
+            matcherOption = PATTERN_OPTION.matcher(spec);
+        }
+
+        // 1. 匹配 name#expire#refresh
+        Matcher matcherRefresh = PATTERN_WITH_REFRESH.matcher(spec);
+        if (matcherRefresh.find()) {
+            long expire = Long.parseLong(matcherRefresh.group(2));
+            long refreshCountdown = Long.parseLong(matcherRefresh.group(3));
+
+            if (refreshCountdown >= expire) {
+                long correctedCountdown = Math.max(1, expire / 2);
+                logger.warn("Invalid cache configuration for '{}': refreshCountdown ({}) >= expire ({}). Correcting to {}s.",
+                        cacheName, refreshCountdown, expire, correctedCountdown);
+                refreshCountdown = correctedCountdown;
+            }
+
+            return new CacheSpec(cacheName, matcherRefresh.group(1), expire, expire - refreshCountdown, expire + refreshCountdown,
+                    readMode, offHeap, writeBehind, tinyLfu);
+        }
+
+        // 2. 匹配 name#expire
+        Matcher matcherExpire = PATTERN_ONLY_EXPIRE.matcher(spec);
+        if (matcherExpire.find()) {
+            long expire = Long.parseLong(matcherExpire.group(2));
+            return new CacheSpec(cacheName, matcherExpire.group(1), expire, -1, expire, readMode, offHeap, writeBehind, tinyLfu);
+        }
+
+        // 3. 普通名称
+        return null;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getExpireSeconds() {
+        return expireSeconds;
+    }
+
+    public long getRefreshAgeSeconds() {
+        return refreshAgeSeconds;
+    }
+
+    public long getPhysicalTtlSeconds() {
+        return physicalTtlSeconds;
+    }
+
+    public boolean isRefreshable() {
+        return refreshAgeSeconds >= 0;
+    }
+
+    public CacheReadMode getReadMode() {
+        return readMode;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    public boolean isTinyLfu() {
+        return tinyLfu;
+    }
+
+    @Override
+    public String toString() {
+        return cacheName + " -> name=" + name + ", ttl=" + physicalTtlSeconds + "s, refreshAge=" + refreshAgeSeconds
+                + "s, readMode=" + readMode + ", offHeap=" + offHeap + ", writeBehind=" + writeBehind + ", tinyLfu=" + tinyLfu;
+    }
+}
@@ -0,0 +1,146 @@
+package com.cache.springboot3cache.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.interceptor.CacheOperation;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.cache.interceptor.CacheOperationSource;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 启动时预先解析缓存配置
+ * 所有单例创建完成后扫描带缓存注解的方法，通过 CacheOperationSource 解析注解（同时预热其内部缓存），
+ * 预先解析和校验每个 cacheNames 并创建共享状态，为带刷新配置的方法创建刷新调用器，最后预热 Redis 连接和序列化器，
+ * 把原本发生在第一次请求上的开销移到启动阶段，配置错误也在启动时就能在日志中看到。
+ */
+public class CacheSpecRegistrar implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSpecRegistrar.class);
+    private static final Set<Class<? extends Annotation>> CACHE_ANNOTATIONS = new LinkedHashSet<>(
+            Arrays.asList(Cacheable.class, CachePut.class, CacheEvict.class, Caching.class));
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final CacheOperationSource cacheOperationSource;
+    private final ObjectProvider<CacheResolver> cacheResolverProvider;
+
+    public CacheSpecRegistrar(ConfigurableListableBeanFactory beanFactory, CacheOperationSource cacheOperationSource, ObjectProvider<CacheResolver> cacheResolverProvider) {
+        this.beanFactory = beanFactory;
+        this.cacheOperationSource = cacheOperationSource;
+        this.cacheResolverProvider = cacheResolverProvider;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        CacheResolver cacheResolver = cacheResolverProvider.getIfAvailable();
+        if (!(cacheResolver instanceof MyCacheResolver)) {
+            return;
+        }
+        MyCacheResolver resolver = (MyCacheResolver) cacheResolver;
+        long start = System.currentTimeMillis();
+
+        Set<String> cacheNames = new LinkedHashSet<>();
+        List<CacheableMethod> cacheableMethods = new ArrayList<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            Class<?> beanType;
+            try {
+                beanType = beanFactory.getType(beanName, false);
+            } catch (Exception e) {
+                continue;
+            }
+            if (beanType == null) {
+                continue;
+            }
+            Class<?> userClass = ClassUtils.getUserClass(beanType);
+            if (!AnnotationUtils.isCandidateClass(userClass, CACHE_ANNOTATIONS)) {
+                continue;
+            }
+            // 只为已创建的单例准备刷新调用器，不提前创建懒加载的 Bean
+            Object bean = beanFactory.containsSingleton(beanName) ? beanFactory.getSingleton(beanName) : null;
+            for (Method method : ReflectionUtils.getUniqueDeclaredMethods(userClass, ReflectionUtils.USER_DECLARED_METHODS)) {
+                Collection<CacheOperation> operations = cacheOperationSource.getCacheOperations(method, userClass);
+                if (operations == null) {
+                    continue;
+                }
+                for (CacheOperation operation : operations) {
+                    cacheNames.addAll(operation.getCacheNames());
+                    if (operation instanceof CacheableOperation && !operation.getCacheNames().isEmpty()) {
+                        // 与 MyCacheResolver 一致，只看第一个 cacheNames
+                        cacheableMethods.add(new CacheableMethod(bean, method, operation.getCacheNames().iterator().next(),
+                                ((CacheableOperation) operation).isSync()));
+                    }
+                }
+            }
+        }
+
+        List<CacheSpec> specs = new ArrayList<>();
+        for (String cacheName : cacheNames) {
+            CacheSpec spec = resolver.prepare(cacheName);
+            if (spec != null) {
+                specs.add(spec);
+            } else if (cacheName.indexOf('#') >= 0) {
+                logger.warn("Cache name '{}' contains '#' but no expire time, it will be treated as a plain cache.", cacheName);
+            }
+        }
+
+        int invokers = 0;
+        for (CacheableMethod candidate : cacheableMethods) {
+            CacheSpec spec = resolver.prepare(candidate.cacheName);
+            if (spec == null) {
+                continue;
+            }
+            if (spec.isTinyLfu() && !candidate.sync) {
+                // 非 sync 的 @Cacheable 由 Spring 直接调用 put 写入，不经过准入过滤
+                logger.warn("Cache name '{}' on {} uses #tinylfu without sync = true, the admission filter will not be applied.",
+                        candidate.cacheName, candidate.method);
+            }
+            if (candidate.bean == null || !spec.isRefreshable()) {
+                continue;
+            }
+            try {
+                resolver.prepareRefresh(candidate.bean, candidate.method);
+                invokers++;
+            } catch (Exception e) {
+                // 启动时创建失败不影响运行，首次刷新时会再次尝试并记录错误
+                logger.warn("Failed to prepare refresh invoker for {}", candidate.method, e);
+            }
+        }
+
+        resolver.warmUp(specs);
+        logger.info("Prepared {} cache specs from {} cache names and {} refresh invokers in {}ms", specs.size(), cacheNames.size(), invokers, System.currentTimeMillis() - start);
+    }
+
+    private static final class CacheableMethod {
+
+        // 尚未创建的单例为 null
+        private final Object bean;
+        private final Method method;
+        private final String cacheName;
+        private final boolean sync;
+
+        private CacheableMethod(Object bean, Method method, String cacheName, boolean sync) {
+            this.bean = bean;
+            this.method = method;
+            this.cacheName = cacheName;
+            this.sync = sync;
+        }
+    }
+}
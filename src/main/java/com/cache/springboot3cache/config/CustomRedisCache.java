@@ -2,22 +2,24 @@ package com.cache.springboot3cache.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.cache.Cache;
-import org.springframework.cache.interceptor.CacheOperationInvocationContext;
 import org.springframework.cache.support.SimpleValueWrapper;
 import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheWriter;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.TimeUnit;
 
 public class CustomRedisCache extends RedisCache {
 
@@ -26,33 +28,131 @@ public class CustomRedisCache extends RedisCache {
     private final long lockTimeoutSeconds;
     private final Executor executor;
     private final StringRedisTemplate stringRedisTemplate;
-    private final RedisTemplate<Object, Object> redisTemplate;
-    private final CacheOperationInvocationContext<?> context;
+    private final RefreshWrapperCodec codec;
+    // 读取使用的 RedisCacheWriter，可能路由到从节点；写入和锁操作始终走主节点
+    private final RedisCacheWriter readCacheWriter;
+    // 刷新时调用被缓存方法，以及本次调用对应 Key 的参数，不刷新的缓存为 null
+    private final RefreshInvoker refreshInvoker;
+    private final Object[] refreshArgs;
+    private final RefreshBackoff refreshBackoff;
+    // 堆外本地缓存，未开启时为 null
+    private final OffHeapStore offHeapStore;
+    // 异步写入缓冲区，未开启时为 null
+    private final WriteBehindBuffer writeBehindBuffer;
+    // 写入准入过滤，未开启时为 null
+    private final AdmissionFilter admissionFilter;
+    // 创建时间和新鲜度判断使用 Redis 服务器时间，不受本机时钟偏差影响
+    private final RedisClock clock;
+    // 热点 Key 统计
+    private final HotKeyTracker hotKeys;
     private static final String LOCK_SUFFIX = "~lock";
+    // 所有节点共享的连续刷新失败次数
+    private static final String BACKOFF_SUFFIX = "~backoff";
+    // 头部与预期一致（值未变化）时只改写头部并续期，否则返回 0 由调用方整体写入
+    private static final RedisScript<Long> TOUCH_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GETRANGE', KEYS[1], 0, string.len(ARGV[1]) - 1) == ARGV[1] then " +
+            "redis.call('SETRANGE', KEYS[1], 0, ARGV[2]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[3]) " +
+            "return 1 end " +
+            "return 0", Long.class);
+    // 锁仍由自己持有时改为退避时长后过期，期间其他节点无法再发起刷新
+    private static final RedisScript<Long> HOLD_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 0", Long.class);
+    // 失败次数加一并续期，返回包含本次在内的连续失败次数
+    private static final RedisScript<Long> FAILURE_COUNT_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('INCR', KEYS[1]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "return count", Long.class);
+    // 刷新成功：清除共享失败计数，锁仍由自己持有时释放；KEYS[1] 为锁，KEYS[2] 为失败计数，两者在同一个 slot
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[2]) " +
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+            "return redis.call('DEL', KEYS[1]) end " +
+            "return 0", Long.class);
+    // 缓存仍是同一份旧值（创建时间一致）时，把剩余 TTL 延长到 ARGV[2]，只延长不缩短
+    private static final RedisScript<Long> EXTEND_STALE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GETRANGE', KEYS[1], 0, string.len(ARGV[1]) - 1) == ARGV[1] " +
+            "and redis.call('PTTL', KEYS[1]) < tonumber(ARGV[2]) then " +
+            "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+            "return 0", Long.class);
+    // 不存在时写入并设置过期时间，存在时返回已有值；一次往返内完成，不会因中途过期丢失已有值
+    private static final RedisScript<byte[]> PUT_IF_ABSENT_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) " +
+            "if current then return current end " +
+            "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) " +
+            "return false", byte[].class);
 
-    protected CustomRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfig, long refreshInSeconds, long lockTimeoutSeconds, Executor executor, StringRedisTemplate stringRedisTemplate, RedisTemplate<Object, Object> redisTemplate, CacheOperationInvocationContext<?> context) {
-        super(name, cacheWriter, cacheConfig);
-        this.refreshInSeconds = refreshInSeconds;
-        this.lockTimeoutSeconds = lockTimeoutSeconds;
-        this.executor = executor;
-        this.stringRedisTemplate = stringRedisTemplate;
-        this.redisTemplate = redisTemplate;
-        this.context = context;
+    /**
+     * 构造函数
+     *
+     * @param settings 同一个 cacheNames 共享的配置
+     * @param refreshInvoker 刷新时调用被缓存方法，不刷新时为 null
+     * @param refreshArgs 本次调用对应 Key 的参数，不刷新时为 null
+     */
+    public CustomRedisCache(CustomRedisCacheSettings settings, RefreshInvoker refreshInvoker, Object[] refreshArgs) {
+        super(settings.getName(), settings.getCacheWriter(), settings.getCacheConfig());
+        this.refreshInSeconds = settings.getRefreshAgeSeconds();
+        this.lockTimeoutSeconds = settings.getLockTimeoutSeconds();
+        this.executor = settings.getRefreshExecutor();
+        this.stringRedisTemplate = settings.getStringRedisTemplate();
+        this.codec = settings.getCodec();
+        this.readCacheWriter = settings.getReadCacheWriter();
+        this.refreshInvoker = refreshInvoker;
+        this.refreshArgs = refreshArgs;
+        this.refreshBackoff = settings.getRefreshBackoff();
+        this.offHeapStore = settings.getOffHeapStore();
+        this.writeBehindBuffer = settings.getWriteBehindBuffer();
+        this.admissionFilter = settings.getAdmissionFilter();
+        this.clock = settings.getClock();
+        this.hotKeys = settings.getHotKeys();
+    }
+
+    /**
+     * 不带刷新调用器的构造函数，值到期后不会触发刷新
+     */
+    public CustomRedisCache(CustomRedisCacheSettings settings) {
+        this(settings, null, null);
     }
 
     @Override
     public ValueWrapper get(Object key) {
+        recordAccess(key);
+        return readValue(key);
+    }
+
+    private void recordAccess(Object key) {
+        if (admissionFilter == null && hotKeys == null) {
+            return;
+        }
         String redisKey = createKey(key);
-        Object value = redisTemplate.opsForValue().get(redisKey);
+        if (admissionFilter != null) {
+            admissionFilter.recordAccess(redisKey);
+        }
+        if (hotKeys != null) {
+            hotKeys.recordAccess(redisKey);
+        }
+    }
+
+    private ValueWrapper readValue(Object key) {
+        String redisKey = createKey(key);
+        // 尚未写入 Redis 的值优先
+        byte[] pendingBytes = writeBehindBuffer != null ? writeBehindBuffer.get(redisKey) : null;
+        Object value;
+        if (pendingBytes != null) {
+            value = codec.decode(pendingBytes);
+        } else if (offHeapStore != null) {
+            value = getThroughOffHeap(redisKey);
+        } else {
+            value = codec.decode(readCacheWriter.get(getName(), codec.encodeKey(redisKey)));
+        }
 
         if (value instanceof RefreshWrapper) {
             RefreshWrapper wrapper = (RefreshWrapper) value;
             
-            if (refreshInSeconds >= 0) {
-                long age = System.currentTimeMillis() - wrapper.getCreateTime();
-                if (age > refreshInSeconds * 1000) {
-                    refreshAsync(key);
-                }
+            if (isRefreshDue(wrapper)) {
+                refreshAsync(key, wrapper);
             }
             
             return new SimpleValueWrapper(wrapper.getValue());
@@ -61,7 +161,55 @@ public class CustomRedisCache extends RedisCache {
         return value != null ? new SimpleValueWrapper(value) : null;
     }
 
-    private void refreshAsync(Object key) {
+    private boolean isRefreshDue(RefreshWrapper wrapper) {
+        if (refreshInSeconds < 0 || refreshInvoker == null) {
+            return false;
+        }
+        long age = clock.currentTimeMillis() - wrapper.getCreateTime();
+        return age > refreshInSeconds * 1000;
+    }
+
+    /**
+     * 先读堆外本地缓存，未命中时从 Redis 读取原始字节并存入本地
+     */
+    private Object getThroughOffHeap(String redisKey) {
+        byte[] bytes = offHeapStore.get(redisKey);
+        if (bytes != null) {
+            Object value = codec.decode(bytes);
+            // 本地副本已到刷新时间时回 Redis 读取，可能已被其他节点刷新
+            if (!(value instanceof RefreshWrapper) || !isRefreshDue((RefreshWrapper) value)) {
+                return value;
+            }
+        }
+
+        bytes = readCacheWriter.get(getName(), codec.encodeKey(redisKey));
+        if (bytes == null) {
+            offHeapStore.remove(redisKey);
+            return null;
+        }
+        Object value = codec.decode(bytes);
+        offHeapStore.put(redisKey, bytes, remainingTtlMillis(value));
+        return value;
+    }
+
+    /**
+     * 值在 Redis 中的剩余存活时间，本地副本不能比 Redis 中的值活得更久
+     */
+    private long remainingTtlMillis(Object value) {
+        long ttlMillis = getCacheConfiguration().getTtl().toMillis();
+        if (value instanceof RefreshWrapper) {
+            return ((RefreshWrapper) value).getCreateTime() + ttlMillis - clock.currentTimeMillis();
+        }
+        return ttlMillis;
+    }
+
+    private void refreshAsync(Object key, RefreshWrapper current) {
+        String redisKey = createKey(key);
+        // 仍在失败退避期内，本节点不再尝试获取锁
+        if (!refreshBackoff.shouldAttempt(redisKey)) {
+            return;
+        }
+
         String lockKey = createLockKey(key);
         String lockValue = UUID.randomUUID().toString();
 
@@ -69,25 +217,28 @@ public class CustomRedisCache extends RedisCache {
         
         if (Boolean.TRUE.equals(locked)) {
             CompletableFuture.runAsync(() -> {
+                long backoffMillis = 0;
                 try {
-                    Object target = context.getTarget();
-                    Object rawTarget = AopProxyUtils.getSingletonTarget(target);
-                    if (rawTarget == null) {
-                        rawTarget = target;
-                    }
+                    Object newValue = refreshInvoker.invoke(refreshArgs);
 
-                    Object[] args = context.getArgs();
-                    Object newValue = context.getMethod().invoke(rawTarget, args);
+                    RefreshWrapperCodec.Encoded encoded = codec.encode(newValue, clock.currentTimeMillis(), true);
+                    if (!touchIfUnchanged(key, current, encoded.getHash())) {
+                        write(redisKey, encoded.getBytes());
+                    }
+                    refreshBackoff.onSuccess(redisKey);
 
-                    put(key, newValue);
-                    
                 } catch (Exception e) {
-                    logger.error("Error refreshing cache key: {}", key, e);
+                    backoffMillis = onRefreshFailure(redisKey, createBackoffKey(key));
+                    logger.error("Error refreshing cache key: {}, next attempt in {}ms", key, backoffMillis, e);
+                    extendStale(redisKey, current);
                 } finally {
                     try {
-                        String currentValue = stringRedisTemplate.opsForValue().get(lockKey);
-                        if (lockValue.equals(currentValue)) {
-                            stringRedisTemplate.delete(lockKey);
+                        if (backoffMillis > 0) {
+                            // 刷新失败：保留锁直到退避结束，让所有节点一起退避
+                            stringRedisTemplate.execute(HOLD_LOCK_SCRIPT, Collections.singletonList(lockKey), lockValue, String.valueOf(backoffMillis));
+                        } else {
+                            // 刷新成功：一次 EVAL 内清除共享失败计数并释放锁
+                            stringRedisTemplate.execute(RELEASE_LOCK_SCRIPT, Arrays.asList(lockKey, createBackoffKey(key)), lockValue);
                         }
                     } catch (Exception e) {
                         logger.error("Failed to release lock", e);
@@ -97,28 +248,168 @@ public class CustomRedisCache extends RedisCache {
         }
     }
 
+    /**
+     * 记录一次刷新失败，按所有节点共享的连续失败次数计算退避时间；Redis 不可用时使用本节点的计数
+     */
+    private long onRefreshFailure(String redisKey, String backoffKey) {
+        try {
+            Long count = stringRedisTemplate.execute(FAILURE_COUNT_SCRIPT, Collections.singletonList(backoffKey),
+                    String.valueOf(refreshBackoff.getFailureCountTtlMillis()));
+            if (count != null) {
+                return refreshBackoff.onFailure(redisKey, count);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to record shared refresh failure for cache key: {}, using local backoff", redisKey, e);
+        }
+        return refreshBackoff.onFailure(redisKey);
+    }
+
+    /**
+     * 刷新失败时延长旧值的物理过期时间（stale-if-error），
+     * 最长保留到 创建时间 + 物理 TTL + stale-if-error 窗口，窗口用完后不再延长
+     */
+    private void extendStale(String redisKey, RefreshWrapper current) {
+        long staleIfErrorMillis = refreshBackoff.getStaleIfErrorMillis();
+        if (staleIfErrorMillis <= 0) {
+            return;
+        }
+        long staleUntil = current.getCreateTime() + getCacheConfiguration().getTtl().toMillis() + staleIfErrorMillis;
+        long remainingMillis = staleUntil - clock.currentTimeMillis();
+        if (remainingMillis <= 0) {
+            return;
+        }
+        try {
+            Long extended = stringRedisTemplate.execute(EXTEND_STALE_SCRIPT, Collections.singletonList(redisKey),
+                    RefreshWrapper.createTimeHeader(current.getCreateTime()), String.valueOf(remainingMillis));
+            if (Long.valueOf(1).equals(extended)) {
+                logger.warn("Serving stale value for cache key: {} for up to {}ms", redisKey, remainingMillis);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to extend stale value for cache key: {}", redisKey, e);
+        }
+    }
+
+    /**
+     * 刷新结果与当前缓存值相同时，只改写头部中的创建时间并续期，避免重写整个值
+     *
+     * @return 是否已续期；false 表示需要整体写入
+     */
+    private boolean touchIfUnchanged(Object key, RefreshWrapper current, String hash) {
+        if (current.getHash() == null || !current.getHash().equals(hash)) {
+            return false;
+        }
+        // 还有未写入的值时 Redis 中不是最新值，整体写入覆盖缓冲区
+        if (writeBehindBuffer != null && writeBehindBuffer.get(createKey(key)) != null) {
+            return false;
+        }
+        String expectedHeader = RefreshWrapper.header(current.getCreateTime(), hash);
+        String newHeader = RefreshWrapper.header(clock.currentTimeMillis(), hash);
+        // SETRANGE 原位覆盖，长度必须一致
+        if (expectedHeader.length() != newHeader.length()) {
+            return false;
+        }
+        long ttlMillis = getCacheConfiguration().getTtl().toMillis();
+        Long touched = stringRedisTemplate.execute(TOUCH_SCRIPT, Collections.singletonList(createKey(key)),
+                expectedHeader, newHeader, String.valueOf(ttlMillis));
+        if (Long.valueOf(1).equals(touched)) {
+            if (offHeapStore != null) {
+                offHeapStore.remove(createKey(key));
+            }
+            logger.debug("Refreshed value unchanged, touched cache key: {}", key);
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public void put(Object key, Object value) {
-        RefreshWrapper wrapper;
+        write(createKey(key), encode(value).getBytes());
+    }
+
+    private RefreshWrapperCodec.Encoded encode(Object value) {
         if (value instanceof RefreshWrapper) {
-            wrapper = (RefreshWrapper) value;
+            RefreshWrapper wrapper = (RefreshWrapper) value;
+            return codec.encode(wrapper.getValue(), wrapper.getCreateTime(), refreshInSeconds >= 0);
+        }
+        // 只有会刷新的缓存需要摘要
+        return codec.encode(value, clock.currentTimeMillis(), refreshInSeconds >= 0);
+    }
+
+    /**
+     * 通过 RedisCacheWriter 按字节写入主节点，开启异步写入时先放入缓冲区由后台批量写入，
+     * 开启堆外缓存时本地保存相同的字节
+     */
+    private void write(String redisKey, byte[] bytes) {
+        if (writeBehindBuffer != null) {
+            writeBehindBuffer.enqueue(redisKey, codec.encodeKey(redisKey), bytes, getCacheConfiguration().getTtl().toMillis());
         } else {
-            wrapper = new RefreshWrapper(value, System.currentTimeMillis());
+            getCacheWriter().put(getName(), codec.encodeKey(redisKey), bytes, getCacheConfiguration().getTtl());
+        }
+        if (offHeapStore != null) {
+            // 刚写入，Redis 中的剩余时间就是完整 TTL
+            offHeapStore.put(redisKey, bytes, getCacheConfiguration().getTtl().toMillis());
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (writeBehindBuffer != null) {
+            writeBehindBuffer.remove(createKey(key));
+        }
+        super.evict(key);
+        if (offHeapStore != null) {
+            offHeapStore.remove(createKey(key));
         }
-        
-        String redisKey = createKey(key);
-        Duration ttl = getCacheConfiguration().getTtl();
-        redisTemplate.opsForValue().set(redisKey, wrapper, ttl.toMillis(), TimeUnit.MILLISECONDS);
     }
 
+    @Override
+    public void clear() {
+        if (writeBehindBuffer != null) {
+            writeBehindBuffer.clear();
+        }
+        super.clear();
+        if (offHeapStore != null) {
+            offHeapStore.clear();
+        }
+    }
+
+    /**
+     * 原子写入：Key 不存在时写入并返回 null，已存在时不覆盖并返回已有值（保留其创建时间）
+     */
     @Override
     public ValueWrapper putIfAbsent(Object key, Object value) {
-        put(key, value);
-        return new SimpleValueWrapper(value);
+        String redisKey = createKey(key);
+        byte[] existing = writeBehindBuffer != null ? writeBehindBuffer.get(redisKey) : null;
+        if (existing == null) {
+            byte[] bytes = encode(value).getBytes();
+            existing = stringRedisTemplate.execute(PUT_IF_ABSENT_SCRIPT, RedisSerializer.byteArray(), RedisSerializer.byteArray(),
+                    Collections.singletonList(redisKey), bytes, String.valueOf(getCacheConfiguration().getTtl().toMillis()).getBytes(StandardCharsets.UTF_8));
+            if (existing == null) {
+                if (offHeapStore != null) {
+                    offHeapStore.put(redisKey, bytes, getCacheConfiguration().getTtl().toMillis());
+                }
+                return null;
+            }
+            if (offHeapStore != null) {
+                Object current = codec.decode(existing);
+                offHeapStore.put(redisKey, existing, remainingTtlMillis(current));
+                return new SimpleValueWrapper(current instanceof RefreshWrapper ? ((RefreshWrapper) current).getValue() : current);
+            }
+        }
+
+        Object current = codec.decode(existing);
+        return new SimpleValueWrapper(current instanceof RefreshWrapper ? ((RefreshWrapper) current).getValue() : current);
     }
     
+    /**
+     * 锁和失败计数用 {缓存 Key} 作为 hash tag，集群下落在同一个 slot，可以在一个脚本中同时操作
+     */
     private String createLockKey(Object key) {
-        return getName() + "::" + key.toString() + LOCK_SUFFIX;
+        return "{" + createKey(key) + "}" + LOCK_SUFFIX;
+    }
+
+    private String createBackoffKey(Object key) {
+        return "{" + createKey(key) + "}" + BACKOFF_SUFFIX;
     }
     
     private String createKey(Object key) {
@@ -127,24 +418,37 @@ public class CustomRedisCache extends RedisCache {
     
     @Override
     public <T> T get(Object key, Callable<T> valueLoader) {
-        ValueWrapper valueWrapper = get(key);
+        // 只记录一次访问，双重检查不重复计数
+        recordAccess(key);
+        ValueWrapper valueWrapper = readValue(key);
         if (valueWrapper != null) {
             return (T) valueWrapper.get();
         }
         
         synchronized (this) {
-            valueWrapper = get(key);
+            valueWrapper = readValue(key);
             if (valueWrapper != null) {
                 return (T) valueWrapper.get();
             }
 
+            T value;
             try {
-                T value = valueLoader.call();
-                put(key, value);
-                return value;
+                value = valueLoader.call();
             } catch (Exception e) {
                 throw new ValueRetrievalException(key, valueLoader, e);
             }
+            // 近期只请求过一次的 Key 不写入 Redis，直接返回加载结果
+            if (admissionFilter != null && !admissionFilter.admit(createKey(key))) {
+                logger.debug("Cache key not admitted (first request in window): {}", key);
+                return value;
+            }
+            if (writeBehindBuffer != null) {
+                put(key, value);
+                return value;
+            }
+            // 多个节点同时加载时只有第一个写入生效，其余节点返回已写入的值
+            ValueWrapper existing = putIfAbsent(key, value);
+            return existing != null ? (T) existing.get() : value;
         }
     }
 }
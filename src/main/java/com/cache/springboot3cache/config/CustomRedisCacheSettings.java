@@ -0,0 +1,212 @@
+package com.cache.springboot3cache.config;
+
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.Executor;
+
+/**
+ * CustomRedisCache 的共享配置
+ * 同一个 cacheNames 的所有 CustomRedisCache 实例共用一份，由 MyCacheResolver 在解析 cacheNames 时创建一次；
+ * 每次调用只需再传入刷新调用器和本次调用的参数。可选功能未开启时对应字段为 null。
+ */
+public final class CustomRedisCacheSettings {
+
+    private final String name;
+    private final RedisCacheWriter cacheWriter;
+    private final RedisCacheConfiguration cacheConfig;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RefreshWrapperCodec codec;
+    private final RedisClock clock;
+    private final RedisCacheWriter readCacheWriter;
+    private final long refreshAgeSeconds;
+    private final long lockTimeoutSeconds;
+    private final Executor refreshExecutor;
+    private final RefreshBackoff refreshBackoff;
+    private final OffHeapStore offHeapStore;
+    private final WriteBehindBuffer writeBehindBuffer;
+    private final AdmissionFilter admissionFilter;
+    private final HotKeyTracker hotKeys;
+
+    private CustomRedisCacheSettings(Builder builder) {
+        this.name = builder.name;
+        this.cacheWriter = builder.cacheWriter;
+        this.cacheConfig = builder.cacheConfig;
+        this.stringRedisTemplate = builder.stringRedisTemplate;
+        this.codec = builder.codec;
+        this.clock = builder.clock;
+        this.readCacheWriter = builder.readCacheWriter != null ? builder.readCacheWriter : builder.cacheWriter;
+        this.refreshAgeSeconds = builder.refreshAgeSeconds;
+        this.lockTimeoutSeconds = builder.lockTimeoutSeconds;
+        this.refreshExecutor = builder.refreshExecutor;
+        this.refreshBackoff = builder.refreshBackoff;
+        this.offHeapStore = builder.offHeapStore;
+        this.writeBehindBuffer = builder.writeBehindBuffer;
+        this.admissionFilter = builder.admissionFilter;
+        this.hotKeys = builder.hotKeys;
+    }
+
+    /**
+     * 创建构建器，必填项为缓存名称、主节点写入器、缓存配置、锁和脚本使用的 StringRedisTemplate、编解码器和时钟
+     */
+    public static Builder builder(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfig,
+                                  StringRedisTemplate stringRedisTemplate, RefreshWrapperCodec codec, RedisClock clock) {
+        return new Builder(name, cacheWriter, cacheConfig, stringRedisTemplate, codec, clock);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RedisCacheWriter getCacheWriter() {
+        return cacheWriter;
+    }
+
+    public RedisCacheConfiguration getCacheConfig() {
+        return cacheConfig;
+    }
+
+    public StringRedisTemplate getStringRedisTemplate() {
+        return stringRedisTemplate;
+    }
+
+    public RefreshWrapperCodec getCodec() {
+        return codec;
+    }
+
+    public RedisClock getClock() {
+        return clock;
+    }
+
+    public RedisCacheWriter getReadCacheWriter() {
+        return readCacheWriter;
+    }
+
+    /**
+     * 触发刷新的年龄（秒），不刷新的缓存为 -1
+     */
+    public long getRefreshAgeSeconds() {
+        return refreshAgeSeconds;
+    }
+
+    public boolean isRefreshable() {
+        return refreshAgeSeconds >= 0;
+    }
+
+    public long getLockTimeoutSeconds() {
+        return lockTimeoutSeconds;
+    }
+
+    public Executor getRefreshExecutor() {
+        return refreshExecutor;
+    }
+
+    public RefreshBackoff getRefreshBackoff() {
+        return refreshBackoff;
+    }
+
+    public OffHeapStore getOffHeapStore() {
+        return offHeapStore;
+    }
+
+    public WriteBehindBuffer getWriteBehindBuffer() {
+        return writeBehindBuffer;
+    }
+
+    public AdmissionFilter getAdmissionFilter() {
+        return admissionFilter;
+    }
+
+    public HotKeyTracker getHotKeys() {
+        return hotKeys;
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private final RedisCacheWriter cacheWriter;
+        private final RedisCacheConfiguration cacheConfig;
+        private final StringRedisTemplate stringRedisTemplate;
+        private final RefreshWrapperCodec codec;
+        private final RedisClock clock;
+        private RedisCacheWriter readCacheWriter;
+        private long refreshAgeSeconds = -1;
+        private long lockTimeoutSeconds;
+        private Executor refreshExecutor;
+        private RefreshBackoff refreshBackoff;
+        private OffHeapStore offHeapStore;
+        private WriteBehindBuffer writeBehindBuffer;
+        private AdmissionFilter admissionFilter;
+        private HotKeyTracker hotKeys;
+
+        private Builder(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfig,
+                        StringRedisTemplate stringRedisTemplate, RefreshWrapperCodec codec, RedisClock clock) {
+            this.name = name;
+            this.cacheWriter = cacheWriter;
+            this.cacheConfig = cacheConfig;
+            this.stringRedisTemplate = stringRedisTemplate;
+            this.codec = codec;
+            this.clock = clock;
+        }
+
+        /**
+         * 读取使用的写入器，可能路由到从节点；不设置时使用主节点写入器
+         */
+        public Builder readCacheWriter(RedisCacheWriter readCacheWriter) {
+            this.readCacheWriter = readCacheWriter;
+            return this;
+        }
+
+        /**
+         * 开启异步刷新
+         *
+         * @param refreshAgeSeconds 触发刷新的年龄（秒）
+         * @param lockTimeoutSeconds 刷新锁超时时间（秒）
+         * @param refreshExecutor 执行刷新的线程池
+         * @param refreshBackoff 刷新失败退避策略
+         */
+        public Builder refresh(long refreshAgeSeconds, long lockTimeoutSeconds, Executor refreshExecutor, RefreshBackoff refreshBackoff) {
+            this.refreshAgeSeconds = refreshAgeSeconds;
+            this.lockTimeoutSeconds = lockTimeoutSeconds;
+            this.refreshExecutor = refreshExecutor;
+            this.refreshBackoff = refreshBackoff;
+            return this;
+        }
+
+        public Builder offHeapStore(OffHeapStore offHeapStore) {
+            this.offHeapStore = offHeapStore;
+            return this;
+        }
+
+        public Builder writeBehindBuffer(WriteBehindBuffer writeBehindBuffer) {
+            this.writeBehindBuffer = writeBehindBuffer;
+            return this;
+        }
+
+        public Builder admissionFilter(AdmissionFilter admissionFilter) {
+            this.admissionFilter = admissionFilter;
+            return this;
+        }
+
+        public Builder hotKeys(HotKeyTracker hotKeys) {
+            this.hotKeys = hotKeys;
+            return this;
+        }
+
+        public CustomRedisCacheSettings build() {
+            Assert.notNull(name, "name must not be null");
+            Assert.notNull(cacheWriter, "cacheWriter must not be null");
+            Assert.notNull(cacheConfig, "cacheConfig must not be null");
+            Assert.notNull(stringRedisTemplate, "stringRedisTemplate must not be null");
+            Assert.notNull(codec, "codec must not be null");
+            Assert.notNull(clock, "clock must not be null");
+            if (refreshAgeSeconds >= 0) {
+                Assert.notNull(refreshExecutor, "refreshExecutor must not be null for a refreshable cache");
+                Assert.notNull(refreshBackoff, "refreshBackoff must not be null for a refreshable cache");
+            }
+            return new CustomRedisCacheSettings(this);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.cache.springboot3cache.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 4 位计数的 Count-Min Sketch，用于估算 Key 在最近一段时间内的访问次数
+ * 每个 long 存放 16 个计数器，共 4 行，每次访问在每行各加一（最大 15），取 4 行中的最小值作为估计值。
+ * 累计访问次数达到 10 倍宽度时所有计数器减半（老化），使估计值只反映最近的访问频率。
+ * 读取和计数都在读路径上，不加锁：计数器用 CAS 更新，老化只由跨过阈值的那一次访问执行，
+ * 老化期间并发的计数可能落在减半之前或之后，对频率估计的影响可以忽略。
+ */
+public class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+
+    private final AtomicLongArray table;
+    private final int widthMask;
+    private final int rowLongs;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * 构造函数
+     *
+     * @param expectedKeys 预计的活跃 Key 数量，决定每行的计数器数量
+     */
+    public FrequencySketch(int expectedKeys) {
+        int width = Integer.highestOneBit(Math.max(16, Math.min(expectedKeys, 1 << 26)) - 1) << 1;
+        this.widthMask = width - 1;
+        this.rowLongs = width >>> 4;
+        this.table = new AtomicLongArray(DEPTH * rowLongs);
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @return 是否触发了老化
+     */
+    public boolean increment(int hash) {
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            added |= incrementAt(row * rowLongs + (index >>> 4), (index & 15) << 2);
+        }
+        // 只有恰好到达阈值的一次访问执行老化，老化后计数减半，不会重复触发
+        if (added && additions.incrementAndGet() == sampleSize) {
+            reset();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 计数器未饱和时加一
+     */
+    private boolean incrementAt(int slot, int shift) {
+        long increment = 1L << shift;
+        while (true) {
+            long current = table.get(slot);
+            if (((current >>> shift) & 0xF) == MAX_COUNT) {
+                return false;
+            }
+            if (table.compareAndSet(slot, current, current + increment)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 估计访问次数（0-15）
+     */
+    public int frequency(int hash) {
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            int count = (int) ((table.get(row * rowLongs + (index >>> 4)) >>> ((index & 15) << 2)) & 0xF);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * 所有计数器减半
+     */
+    private void reset() {
+        for (int i = 0; i < table.length(); i++) {
+            table.getAndUpdate(i, value -> (value >>> 1) & RESET_MASK);
+        }
+        additions.addAndGet(-(sampleSize >>> 1));
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h ^= h >>> 32;
+        return (int) h & widthMask;
+    }
+}
@@ -0,0 +1,87 @@
+package com.cache.springboot3cache.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 单个缓存的热点 Key 统计（Space-Saving 算法）
+ * 按采样率记录访问，只保留固定数量的计数器：新 Key 替换计数最小的计数器并继承其计数，
+ * 计数减去继承值（error）即为该 Key 访问次数的下界，内存占用与 Key 空间大小无关。
+ */
+public class HotKeyTracker {
+
+    private final int capacity;
+    private final int sampleRate;
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 保留的计数器数量，应为需要的 Top N 的数倍
+     * @param sampleRate 采样率，每 sampleRate 次访问记录一次
+     */
+    public HotKeyTracker(int capacity, int sampleRate) {
+        this.capacity = Math.max(1, capacity);
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public void recordAccess(String redisKey) {
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        synchronized (this) {
+            Counter counter = counters.get(redisKey);
+            if (counter != null) {
+                counter.count++;
+                return;
+            }
+            if (counters.size() < capacity) {
+                counters.put(redisKey, new Counter(1, 0));
+                return;
+            }
+            // 替换计数最小的计数器
+            String minKey = null;
+            Counter min = null;
+            for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                if (min == null || entry.getValue().count < min.count) {
+                    minKey = entry.getKey();
+                    min = entry.getValue();
+                }
+            }
+            counters.remove(minKey);
+            counters.put(redisKey, new Counter(min.count + 1, min.count));
+        }
+    }
+
+    /**
+     * 访问最多的 Key，估计次数已按采样率放大
+     */
+    public synchronized List<Map<String, Object>> top(int n) {
+        List<Map.Entry<String, Counter>> entries = new ArrayList<>(counters.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().count, a.getValue().count));
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (int i = 0; i < Math.min(n, entries.size()); i++) {
+            Counter counter = entries.get(i).getValue();
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("key", entries.get(i).getKey());
+            item.put("estimatedAccesses", counter.count * sampleRate);
+            item.put("maxError", counter.error * sampleRate);
+            top.add(item);
+        }
+        return top;
+    }
+
+    private static final class Counter {
+        private long count;
+        private final long error;
+
+        private Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -9,21 +9,26 @@ import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
+import java.lang.reflect.Method;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class MyCacheResolver implements CacheResolver {
 
     private static final Logger logger = LoggerFactory.getLogger(MyCacheResolver.class);
-    private static final Pattern PATTERN_WITH_REFRESH = Pattern.compile("(.+)#(\\d+)#(\\d+)");
-    private static final Pattern PATTERN_ONLY_EXPIRE = Pattern.compile("(.+)#(\\d+)");
     
+    // 预热连接时读取的 Key，不存在也无影响
+    private static final String WARMUP_KEY = "springboot3cache:warmup";
+
     // 默认分布式锁超时时间（秒）
     private static final long DEFAULT_LOCK_TIMEOUT_SECONDS = 60;
 
@@ -32,62 +37,150 @@ public class MyCacheResolver implements CacheResolver {
     private final RedisCacheConfiguration defaultCacheConfig;
     private final Executor cacheRefreshExecutor;
     private final StringRedisTemplate stringRedisTemplate;
-    private final RedisTemplate<Object, Object> redisTemplate;
+    private final RefreshWrapperCodec codec;
+    private final ReplicaCacheWriters replicaCacheWriters;
+    private final RefreshBackoff refreshBackoff;
+    private final OffHeapStores offHeapStores;
+    private final WriteBehindBuffers writeBehindBuffers;
+    private final AdmissionFilters admissionFilters;
+    private final RedisClock redisClock;
+    private final CacheInsight cacheInsight;
+    // 是否在 Web 请求内对相同（缓存, Key）的读取做请求级缓存
+    private final boolean requestMemoEnabled;
+    // cacheNames -> 解析结果及共享状态
+    private final Map<String, ResolvedSpec> resolvedSpecs = new ConcurrentHashMap<>();
+    // 刷新调用器，每个被缓存的方法只创建一次
+    private final RefreshInvokers refreshInvokers = new RefreshInvokers();
 
-    public MyCacheResolver(CacheManager cacheManager, RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfig, Executor cacheRefreshExecutor, StringRedisTemplate stringRedisTemplate, RedisTemplate<Object, Object> redisTemplate) {
+    @SuppressWarnings("unchecked")
+    public MyCacheResolver(CacheManager cacheManager, RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfig, Executor cacheRefreshExecutor, StringRedisTemplate stringRedisTemplate, RedisTemplate<Object, Object> redisTemplate, ReplicaCacheWriters replicaCacheWriters, RefreshBackoff refreshBackoff, OffHeapStores offHeapStores, WriteBehindBuffers writeBehindBuffers, AdmissionFilters admissionFilters, RedisClock redisClock, CacheInsight cacheInsight, boolean requestMemoEnabled) {
         this.cacheManager = cacheManager;
         this.cacheWriter = cacheWriter;
         this.defaultCacheConfig = defaultCacheConfig;
         this.cacheRefreshExecutor = cacheRefreshExecutor;
         this.stringRedisTemplate = stringRedisTemplate;
-        this.redisTemplate = redisTemplate;
+        // 与 RedisTemplate 使用同一个值序列化器，保证数据格式兼容
+        this.codec = new RefreshWrapperCodec((RedisSerializer<Object>) redisTemplate.getValueSerializer());
+        this.replicaCacheWriters = replicaCacheWriters;
+        this.refreshBackoff = refreshBackoff;
+        this.offHeapStores = offHeapStores;
+        this.writeBehindBuffers = writeBehindBuffers;
+        this.admissionFilters = admissionFilters;
+        this.redisClock = redisClock;
+        this.cacheInsight = cacheInsight;
+        this.requestMemoEnabled = requestMemoEnabled;
         logger.info("MyCacheResolver initialized");
     }
 
     @Override
     public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
-        String cacheName = context.getOperation().getCacheNames().iterator().next();
-        logger.info("Resolving cache for name: {}", cacheName);
-        
-        // 1. 匹配 name#expire#refresh
-        Matcher matcherRefresh = PATTERN_WITH_REFRESH.matcher(cacheName);
-        if (matcherRefresh.find()) {
-            String name = matcherRefresh.group(1);
-            long expire = Long.parseLong(matcherRefresh.group(2));
-            long refreshCountdown = Long.parseLong(matcherRefresh.group(3));
-
-            if (refreshCountdown >= expire) {
-                long correctedCountdown = Math.max(1, expire / 2);
-                logger.warn("Invalid cache configuration for '{}': refreshCountdown ({}) >= expire ({}). Correcting to {}s.",
-                        cacheName, refreshCountdown, expire, correctedCountdown);
-                refreshCountdown = correctedCountdown;
+        Cache cache = resolveCache(context);
+        return Collections.singletonList(requestMemoEnabled ? RequestMemoCache.wrapIfInRequest(cache) : cache);
+    }
+
+    /**
+     * 解析 cacheNames 并预先创建共享状态（读取路由、堆外缓存、异步写入缓冲区、准入过滤、热点统计），
+     * 同一个 cacheNames 只做一次；启动时由 CacheSpecRegistrar 调用，运行时首次解析时调用
+     *
+     * @return 解析结果，普通名称返回 null
+     */
+    public CacheSpec prepare(String cacheName) {
+        return resolvedSpecs.computeIfAbsent(cacheName, this::resolveSpec).spec;
+    }
+
+    /**
+     * 预先创建刷新调用器，启动时由 CacheSpecRegistrar 对带刷新配置的方法调用
+     *
+     * @param target 缓存注解所在的 Bean，可以是代理对象
+     * @param method 被缓存的方法
+     */
+    public void prepareRefresh(Object target, Method method) {
+        refreshInvokers.get(target, method);
+    }
+
+    public long getRefreshInvokerCount() {
+        return refreshInvokers.size();
+    }
+
+    private ResolvedSpec resolveSpec(String cacheName) {
+        CacheSpec spec = CacheSpec.parse(cacheName);
+        if (spec == null) {
+            return ResolvedSpec.NONE;
+        }
+        String name = spec.getName();
+        RedisCacheConfiguration config = defaultCacheConfig.entryTtl(Duration.ofSeconds(spec.getPhysicalTtlSeconds()));
+        long refreshAgeMillis = spec.isRefreshable() ? spec.getRefreshAgeSeconds() * 1000 : -1;
+        logger.info("Prepared cache spec: {}", spec);
+        CustomRedisCacheSettings.Builder settings = CustomRedisCacheSettings.builder(name, cacheWriter, config, stringRedisTemplate, codec, redisClock)
+                .readCacheWriter(replicaCacheWriters.cacheWriterFor(spec.getReadMode()))
+                .offHeapStore(spec.isOffHeap() ? offHeapStores.storeFor(name) : null)
+                .writeBehindBuffer(spec.isWriteBehind() ? writeBehindBuffers.bufferFor(name) : null)
+                .admissionFilter(spec.isTinyLfu() ? admissionFilters.filterFor(name) : null)
+                .hotKeys(cacheInsight.register(name, spec.getPhysicalTtlSeconds() * 1000, refreshAgeMillis));
+        if (spec.isRefreshable()) {
+            settings.refresh(spec.getRefreshAgeSeconds(), DEFAULT_LOCK_TIMEOUT_SECONDS, cacheRefreshExecutor, refreshBackoff);
+        }
+        return new ResolvedSpec(spec, settings.build());
+    }
+
+    /**
+     * 预热序列化器和各读取路由的 Redis 连接，失败只记录日志，不影响启动
+     */
+    public void warmUp(Collection<CacheSpec> specs) {
+        try {
+            // 首次序列化需要解析 RefreshWrapper 的类型信息
+            codec.decode(codec.encode(WARMUP_KEY, redisClock.currentTimeMillis(), true).getBytes());
+        } catch (Exception e) {
+            logger.warn("Failed to warm up cache serializer", e);
+        }
+
+        Set<CacheReadMode> readModes = EnumSet.of(CacheReadMode.MASTER);
+        for (CacheSpec spec : specs) {
+            readModes.add(spec.getReadMode());
+        }
+        for (CacheReadMode readMode : readModes) {
+            try {
+                replicaCacheWriters.cacheWriterFor(readMode).get(WARMUP_KEY, codec.encodeKey(WARMUP_KEY));
+            } catch (Exception e) {
+                logger.warn("Failed to open Redis connection for read mode {}: {}", readMode, e.getMessage());
             }
+        }
+    }
 
-            long refreshAge = expire - refreshCountdown;
-            long physicalTtl = expire + refreshCountdown;
+    private Cache resolveCache(CacheOperationInvocationContext<?> context) {
+        String cacheName = context.getOperation().getCacheNames().iterator().next();
+        logger.debug("Resolving cache for name: {}", cacheName);
 
-            RedisCacheConfiguration config = defaultCacheConfig.entryTtl(Duration.ofSeconds(physicalTtl));
-            
-            // 创建 CustomRedisCache，传入 context 和 redisTemplate，以及锁超时时间
-            CustomRedisCache customCache = new CustomRedisCache(name, cacheWriter, config, refreshAge, DEFAULT_LOCK_TIMEOUT_SECONDS, cacheRefreshExecutor, stringRedisTemplate, redisTemplate, context);
-            logger.info("Created CustomRedisCache: {}", System.identityHashCode(customCache));
-            return Collections.singletonList(customCache);
+        ResolvedSpec resolved = resolvedSpecs.computeIfAbsent(cacheName, this::resolveSpec);
+        CacheSpec spec = resolved.spec;
+        if (spec == null) {
+            // 默认情况
+            return cacheManager.getCache(cacheName);
         }
 
-        // 2. 匹配 name#expire
-        Matcher matcherExpire = PATTERN_ONLY_EXPIRE.matcher(cacheName);
-        if (matcherExpire.find()) {
-            String name = matcherExpire.group(1);
-            long expire = Long.parseLong(matcherExpire.group(2));
-            
-            RedisCacheConfiguration config = defaultCacheConfig.entryTtl(Duration.ofSeconds(expire));
-            
-            // 使用 CustomRedisCache，refreshAge = -1 (不触发刷新)
-            // 传入 redisTemplate，context 为 null
-            return Collections.singletonList(new CustomRedisCache(name, cacheWriter, config, -1, DEFAULT_LOCK_TIMEOUT_SECONDS, cacheRefreshExecutor, stringRedisTemplate, redisTemplate, null));
+        if (spec.isRefreshable()) {
+            // 创建 CustomRedisCache，传入刷新调用器和本次调用的参数用于异步刷新
+            RefreshInvoker refreshInvoker = refreshInvokers.get(context.getTarget(), context.getMethod());
+            Object[] refreshArgs = context.getArgs().clone();
+            return new CustomRedisCache(resolved.settings, refreshInvoker, refreshArgs);
         }
 
-        // 3. 默认情况
-        return Collections.singletonList(cacheManager.getCache(cacheName));
+        // 不刷新的缓存，刷新调用器为 null
+        return new CustomRedisCache(resolved.settings);
+    }
+
+    /**
+     * 解析后的 cacheNames 及其共享状态
+     */
+    private static final class ResolvedSpec {
+        private static final ResolvedSpec NONE = new ResolvedSpec(null, null);
+
+        private final CacheSpec spec;
+        private final CustomRedisCacheSettings settings;
+
+        private ResolvedSpec(CacheSpec spec, CustomRedisCacheSettings settings) {
+            this.spec = spec;
+            this.settings = settings;
+        }
     }
 }
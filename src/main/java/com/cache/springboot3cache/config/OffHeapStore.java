@@ -0,0 +1,258 @@
+package com.cache.springboot3cache.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 堆外本地缓存
+ * 保存从 Redis 读到的序列化字节，命中时只需反序列化，缓存内容不占用堆内存。
+ * 存储由若干固定大小的直接内存段（direct ByteBuffer）组成环形日志：写入顺序追加到当前段，
+ * 当前段写满后切换到下一段并整段淘汰其中的旧数据（FIFO），总内存不超过初始容量。
+ * 读取无锁，通过段的代数（generation）在复制前后校验，段被淘汰覆盖时视为未命中。
+ * 本地条目的存活时间不超过 ttlMillis，写入时也可以传入更短的剩余时间（例如 Redis 中的剩余 TTL）。
+ */
+public class OffHeapStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapStore.class);
+
+    private final String name;
+    private final ByteBuffer[] segments;
+    private final int segmentSize;
+    private final long ttlMillis;
+    // 每个段的代数，段被淘汰时递增，使指向该段的旧位置失效
+    private final AtomicLongArray generations;
+    // 每个段写入过的 Key，淘汰时据此清理索引
+    private final List<List<String>> segmentKeys;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+
+    // 以下写入状态由 this 锁保护
+    private int currentSegment;
+    private int writeOffset;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder liveBytes = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param name 缓存名称
+     * @param capacityBytes 总容量（字节）
+     * @param segmentCount 段数量，单个值不能超过 容量 / 段数量
+     * @param ttlMillis 本地条目的存活时间（毫秒）
+     */
+    public OffHeapStore(String name, long capacityBytes, int segmentCount, long ttlMillis) {
+        this.name = name;
+        int count = Math.max(2, segmentCount);
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, Math.max(1024, capacityBytes / count));
+        this.ttlMillis = ttlMillis;
+        this.segments = new ByteBuffer[count];
+        this.segmentKeys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = ByteBuffer.allocateDirect(segmentSize);
+            segmentKeys.add(new ArrayList<>());
+        }
+        this.generations = new AtomicLongArray(count);
+    }
+
+    /**
+     * 读取本地缓存的字节
+     *
+     * @return 命中时返回字节副本，未命中或已过期返回 null
+     */
+    public byte[] get(String key) {
+        Entry entry = index.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expireAt) {
+            if (index.remove(key, entry)) {
+                liveBytes.add(-entry.length);
+            }
+            misses.increment();
+            return null;
+        }
+        byte[] bytes = new byte[entry.length];
+        if (generations.get(entry.segment) != entry.generation) {
+            misses.increment();
+            return null;
+        }
+        segments[entry.segment].get(entry.offset, bytes);
+        // 保证复制数据的读取不会被重排到再次读取代数之后
+        VarHandle.loadLoadFence();
+        // 复制期间段被淘汰覆盖，数据不可信
+        if (generations.get(entry.segment) != entry.generation) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return bytes;
+    }
+
+    /**
+     * 写入本地缓存，超过单段大小的值不缓存，并移除该 Key 已有的旧条目
+     */
+    public void put(String key, byte[] bytes) {
+        put(key, bytes, ttlMillis);
+    }
+
+    /**
+     * 写入本地缓存，条目存活时间取 maxTtlMillis 与本地存活时间中较小的一个
+     *
+     * @param maxTtlMillis 条目最长存活时间（毫秒），不大于 0 时不缓存并移除已有条目
+     */
+    public synchronized void put(String key, byte[] bytes, long maxTtlMillis) {
+        if (maxTtlMillis <= 0) {
+            remove(key);
+            return;
+        }
+        if (bytes == null || bytes.length > segmentSize) {
+            // 新值无法缓存时旧条目已过时，不能继续返回
+            remove(key);
+            return;
+        }
+        if (writeOffset + bytes.length > segmentSize) {
+            advanceSegment();
+        }
+        int offset = writeOffset;
+        segments[currentSegment].put(offset, bytes);
+        writeOffset += bytes.length;
+        segmentKeys.get(currentSegment).add(key);
+
+        Entry entry = new Entry(currentSegment, offset, bytes.length, generations.get(currentSegment), System.currentTimeMillis() + Math.min(ttlMillis, maxTtlMillis));
+        Entry previous = index.put(key, entry);
+        liveBytes.add(bytes.length);
+        if (previous != null) {
+            liveBytes.add(-previous.length);
+        }
+    }
+
+    public void remove(String key) {
+        Entry previous = index.remove(key);
+        if (previous != null) {
+            liveBytes.add(-previous.length);
+        }
+    }
+
+    public synchronized void clear() {
+        index.clear();
+        liveBytes.reset();
+        for (int i = 0; i < segments.length; i++) {
+            generations.incrementAndGet(i);
+            segmentKeys.get(i).clear();
+        }
+        currentSegment = 0;
+        writeOffset = 0;
+    }
+
+    /**
+     * 切换到下一段，淘汰该段原有的全部条目
+     */
+    private void advanceSegment() {
+        currentSegment = (currentSegment + 1) % segments.length;
+        writeOffset = 0;
+        // 先递增代数，再覆盖数据，读线程据此判断数据是否仍有效
+        long staleGeneration = generations.getAndIncrement(currentSegment);
+        VarHandle.storeStoreFence();
+        List<String> keys = segmentKeys.get(currentSegment);
+        for (String key : keys) {
+            Entry entry = index.get(key);
+            if (entry != null && entry.segment == currentSegment && entry.generation == staleGeneration && index.remove(key, entry)) {
+                liveBytes.add(-entry.length);
+                evictions.increment();
+            }
+        }
+        keys.clear();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Off-heap store '{}' rotated to segment {}: {}", name, currentSegment, getStats());
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(name, (long) segmentSize * segments.length, liveBytes.sum(), index.size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private static final class Entry {
+        private final int segment;
+        private final int offset;
+        private final int length;
+        private final long generation;
+        private final long expireAt;
+
+        private Entry(int segment, int offset, int length, long generation, long expireAt) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.generation = generation;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * 堆外缓存使用情况
+     */
+    public static final class Stats {
+        private final String name;
+        private final long capacityBytes;
+        private final long usedBytes;
+        private final int entries;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        public Stats(String name, long capacityBytes, long usedBytes, int entries, long hits, long misses, long evictions) {
+            this.name = name;
+            this.capacityBytes = capacityBytes;
+            this.usedBytes = usedBytes;
+            this.entries = entries;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCapacityBytes() {
+            return capacityBytes;
+        }
+
+        public long getUsedBytes() {
+            return usedBytes;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        @Override
+        public String toString() {
+            return "capacity=" + capacityBytes + "B, used=" + usedBytes + "B, entries=" + entries
+                    + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.cache.springboot3cache.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按缓存名称管理堆外本地缓存
+ * 只有 cacheNames 带 #offheap 选项的缓存才会创建，首次使用时分配直接内存
+ */
+public class OffHeapStores {
+
+    private final long capacityBytes;
+    private final int segmentCount;
+    private final long ttlMillis;
+    private final Map<String, OffHeapStore> stores = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param capacityBytes 每个缓存的堆外容量（字节）
+     * @param segmentCount 每个缓存的段数量
+     * @param ttlMillis 本地条目的存活时间（毫秒）
+     */
+    public OffHeapStores(long capacityBytes, int segmentCount, long ttlMillis) {
+        this.capacityBytes = capacityBytes;
+        this.segmentCount = segmentCount;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public OffHeapStore storeFor(String cacheName) {
+        return stores.computeIfAbsent(cacheName, name -> new OffHeapStore(name, capacityBytes, segmentCount, ttlMillis));
+    }
+
+    /**
+     * 所有堆外缓存的使用情况
+     */
+    public List<OffHeapStore.Stats> getStats() {
+        List<OffHeapStore.Stats> stats = new ArrayList<>();
+        for (OffHeapStore store : stores.values()) {
+            stats.add(store.getStats());
+        }
+        return stats;
+    }
+}
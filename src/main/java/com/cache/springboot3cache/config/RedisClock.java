@@ -0,0 +1,169 @@
+package com.cache.springboot3cache.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 以 Redis 服务器时间为准的时钟
+ * 缓存的创建时间和刷新判断都使用该时钟，避免各节点本机时钟偏差导致提前刷新（刷新风暴）或迟迟不刷新。
+ * 定期通过 TIME 命令采样，取往返耗时最短的一次计算本机与 Redis 的时间差（按半个往返耗时补偿），
+ * 读取时只做一次加法；未同步成功前使用本机时间。
+ * 集群模式下固定向负责最小 slot 的主节点采样，所有应用节点以同一台 Redis 的时间为准。
+ */
+public class RedisClock implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisClock.class);
+    private static final int SAMPLES = 3;
+    // 时间差超过该值时告警
+    private static final long SKEW_WARN_MILLIS = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final LongSupplier localTime;
+    private final ScheduledExecutorService scheduler;
+    private volatile long offsetMillis;
+    private volatile long lastRttMicros = -1;
+    private volatile long lastSyncTime;
+
+    /**
+     * 构造函数
+     *
+     * @param stringRedisTemplate 用于执行 TIME 命令，为 null 时直接使用本机时间
+     * @param syncIntervalMillis 重新同步的间隔（毫秒）
+     */
+    public RedisClock(StringRedisTemplate stringRedisTemplate, long syncIntervalMillis) {
+        this(stringRedisTemplate, syncIntervalMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param stringRedisTemplate 用于执行 TIME 命令，为 null 时直接使用本机时间
+     * @param syncIntervalMillis 重新同步的间隔（毫秒）
+     * @param localTime 本机时间（毫秒）来源
+     */
+    public RedisClock(StringRedisTemplate stringRedisTemplate, long syncIntervalMillis, LongSupplier localTime) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localTime = localTime;
+        if (stringRedisTemplate == null) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "springboot3CacheClockSync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::sync, 0, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 当前 Redis 服务器时间（毫秒）
+     */
+    public long currentTimeMillis() {
+        return localTime.getAsLong() + offsetMillis;
+    }
+
+    /**
+     * 采样 Redis 时间并更新时间差
+     *
+     * @return 是否同步成功
+     */
+    public boolean sync() {
+        long bestRttNanos = Long.MAX_VALUE;
+        long bestOffset = 0;
+        try {
+            // 采样前先确定目标节点，查询集群拓扑的耗时不计入往返耗时
+            RedisClusterNode node = stringRedisTemplate.execute((RedisCallback<RedisClusterNode>) RedisClock::timeNode);
+            for (int i = 0; i < SAMPLES; i++) {
+                long localBefore = localTime.getAsLong();
+                long start = System.nanoTime();
+                Long serverTime = stringRedisTemplate.execute((RedisCallback<Long>) connection -> serverTime(connection, node));
+                long rttNanos = System.nanoTime() - start;
+                if (serverTime != null && rttNanos < bestRttNanos) {
+                    bestRttNanos = rttNanos;
+                    bestOffset = serverTime - (localBefore + TimeUnit.NANOSECONDS.toMillis(rttNanos / 2));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to sync clock with Redis, keeping offset {}ms: {}", offsetMillis, e.getMessage());
+            return false;
+        }
+        if (bestRttNanos == Long.MAX_VALUE) {
+            return false;
+        }
+
+        if (Math.abs(bestOffset) > SKEW_WARN_MILLIS && Math.abs(bestOffset - offsetMillis) > SKEW_WARN_MILLIS) {
+            logger.warn("Local clock differs from Redis by {}ms, cache freshness uses Redis time", bestOffset);
+        }
+        offsetMillis = bestOffset;
+        lastRttMicros = TimeUnit.NANOSECONDS.toMicros(bestRttNanos);
+        lastSyncTime = localTime.getAsLong();
+        logger.debug("Synced clock with Redis: offset={}ms, rtt={}us", bestOffset, lastRttMicros);
+        return true;
+    }
+
+    /**
+     * 读取 Redis 服务器时间，集群模式下使用指定节点
+     */
+    private static Long serverTime(RedisConnection connection, RedisClusterNode node) {
+        if (node != null && connection instanceof RedisClusterConnection) {
+            return ((RedisClusterConnection) connection).serverCommands().time(node, TimeUnit.MILLISECONDS);
+        }
+        return connection.serverCommands().time(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 集群模式下返回负责最小 slot 的主节点，否则 TIME 会落在任意节点上，
+     * 各 Redis 节点之间的时钟偏差会体现为时间差的抖动；非集群返回 null
+     */
+    private static RedisClusterNode timeNode(RedisConnection connection) {
+        if (!(connection instanceof RedisClusterConnection)) {
+            return null;
+        }
+        Iterable<RedisClusterNode> nodes = ((RedisClusterConnection) connection).clusterGetNodes();
+        RedisClusterNode lowest = null;
+        int lowestSlot = Integer.MAX_VALUE;
+        for (RedisClusterNode node : nodes) {
+            if (!node.isMaster() || node.getSlotRange() == null) {
+                continue;
+            }
+            int slot = node.getSlotRange().getSlots().stream().min(Comparator.naturalOrder()).orElse(Integer.MAX_VALUE);
+            if (slot < lowestSlot) {
+                lowestSlot = slot;
+                lowest = node;
+            }
+        }
+        return lowest;
+    }
+
+    public long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    public long getLastRttMicros() {
+        return lastRttMicros;
+    }
+
+    public long getLastSyncTime() {
+        return lastSyncTime;
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
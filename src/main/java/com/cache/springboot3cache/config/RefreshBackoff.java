@@ -0,0 +1,111 @@
+package com.cache.springboot3cache.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * 刷新失败退避策略
+ * 按缓存 Key（name::key）记录连续失败次数，失败后按指数退避推迟下一次刷新尝试，
+ * 并在退避期间通过 stale-if-error 窗口延长旧值的物理过期时间，避免后端故障时重试风暴和缓存击穿。
+ * 连续失败次数由 CustomRedisCache 记录在 Redis 中（name::key~backoff），所有节点共享同一个计数，
+ * 锁过期后由其他节点重试时也会继续按指数退避；本地只在有界的 Caffeine 缓存中记录下一次尝试时间，
+ * Redis 不可用时退回本地计数。
+ */
+public class RefreshBackoff {
+
+    // 最多跟踪的失败 Key 数量
+    private static final long MAX_TRACKED_KEYS = 10_000;
+
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long staleIfErrorMillis;
+    private final Cache<String, Failure> failures;
+
+    /**
+     * 构造函数
+     *
+     * @param initialBackoffMillis 首次失败后的退避时间（毫秒）
+     * @param maxBackoffMillis 最大退避时间（毫秒）
+     * @param staleIfErrorSeconds 刷新失败时旧值可额外保留的时间（秒），0 表示不延长
+     */
+    public RefreshBackoff(long initialBackoffMillis, long maxBackoffMillis, long staleIfErrorSeconds) {
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.staleIfErrorMillis = Math.max(0, staleIfErrorSeconds) * 1000;
+        // 超过最大退避时间两倍仍未再失败的记录自动清除
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterWrite(Duration.ofMillis(this.maxBackoffMillis * 2))
+                .build();
+    }
+
+    /**
+     * 当前是否允许对该 Key 发起刷新
+     */
+    public boolean shouldAttempt(String redisKey) {
+        Failure failure = failures.getIfPresent(redisKey);
+        return failure == null || System.currentTimeMillis() >= failure.nextAttemptAt;
+    }
+
+    /**
+     * 记录一次刷新失败，使用本节点的失败次数（共享计数不可用时）
+     *
+     * @return 本次退避时间（毫秒）
+     */
+    public long onFailure(String redisKey) {
+        Failure failure = failures.asMap().compute(redisKey, (k, previous) -> {
+            long count = previous == null ? 1 : previous.count + 1;
+            return new Failure(count, System.currentTimeMillis() + backoffMillis(count));
+        });
+        return backoffMillis(failure.count);
+    }
+
+    /**
+     * 记录一次刷新失败，使用所有节点共享的连续失败次数
+     *
+     * @param sharedFailureCount 包含本次在内的连续失败次数
+     * @return 本次退避时间（毫秒）
+     */
+    public long onFailure(String redisKey, long sharedFailureCount) {
+        long count = Math.max(1, sharedFailureCount);
+        long backoffMillis = backoffMillis(count);
+        failures.put(redisKey, new Failure(count, System.currentTimeMillis() + backoffMillis));
+        return backoffMillis;
+    }
+
+    /**
+     * 刷新成功，清除失败记录
+     */
+    public void onSuccess(String redisKey) {
+        failures.invalidate(redisKey);
+    }
+
+    public long getStaleIfErrorMillis() {
+        return staleIfErrorMillis;
+    }
+
+    /**
+     * 共享失败计数的过期时间，与本地记录一致：超过最大退避时间两倍仍未再失败则重新计数
+     */
+    public long getFailureCountTtlMillis() {
+        return maxBackoffMillis * 2;
+    }
+
+    private long backoffMillis(long count) {
+        // initial * 2^(count-1)，限制位移避免溢出
+        int shift = (int) Math.min(count - 1, 30);
+        return Math.min(maxBackoffMillis, initialBackoffMillis << shift);
+    }
+
+    private static final class Failure {
+        private final long count;
+        private final long nextAttemptAt;
+
+        private Failure(long count, long nextAttemptAt) {
+            this.count = count;
+            this.nextAttemptAt = nextAttemptAt;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.cache.springboot3cache.config;
+
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * 异步刷新时调用被缓存方法的调用器
+ * 创建时解析一次代理背后的原始对象，把方法转换为绑定原始对象、参数数组展开后的 MethodHandle，
+ * 之后每次刷新只需 invokeExact，不再经过代理解析、Method.invoke 的访问检查和参数装配。
+ * 直接调用原始对象，刷新时不会再次进入缓存切面。
+ */
+public class RefreshInvoker {
+
+    private static final MethodType INVOKE_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final Method method;
+    private final MethodHandle handle;
+
+    /**
+     * 构造函数
+     *
+     * @param target 缓存注解所在的 Bean，可以是代理对象
+     * @param method 被缓存的方法
+     */
+    public RefreshInvoker(Object target, Method method) {
+        this.method = method;
+        Object rawTarget = AopProxyUtils.getSingletonTarget(target);
+        if (rawTarget == null) {
+            rawTarget = target;
+        }
+        try {
+            ReflectionUtils.makeAccessible(method);
+            MethodHandle methodHandle = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                methodHandle = methodHandle.bindTo(rawTarget);
+            }
+            this.handle = methodHandle
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(INVOKE_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot create refresh invoker for " + method, e);
+        }
+    }
+
+    /**
+     * 使用给定参数调用原始对象上的方法，方法自身抛出的异常原样抛出
+     */
+    public Object invoke(Object[] args) throws Exception {
+        try {
+            return (Object) handle.invokeExact(args);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+}
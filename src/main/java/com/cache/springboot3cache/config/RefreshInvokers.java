@@ -0,0 +1,69 @@
+package com.cache.springboot3cache.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.aop.framework.AopProxyUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * 按 (Bean, 方法) 缓存 RefreshInvoker
+ * 每个被缓存的方法只在第一次使用（或启动时由 CacheSpecRegistrar 预先）创建一次调用器，
+ * Bean 按代理背后的原始对象的身份比较：启动时拿到的是代理，运行时缓存切面传入的是原始对象，两者对应同一个调用器。
+ * 记录保存在有界的本地 Caffeine 缓存中，非单例 Bean 也不会无限增长。
+ */
+public class RefreshInvokers {
+
+    // 最多缓存的调用器数量
+    private static final long MAX_INVOKERS = 10_000;
+
+    private final Cache<InvokerKey, RefreshInvoker> invokers = Caffeine.newBuilder()
+            .maximumSize(MAX_INVOKERS)
+            .build();
+
+    /**
+     * 获取或创建调用器
+     *
+     * @param target 缓存注解所在的 Bean，可以是代理对象
+     * @param method 被缓存的方法
+     */
+    public RefreshInvoker get(Object target, Method method) {
+        Object rawTarget = AopProxyUtils.getSingletonTarget(target);
+        if (rawTarget == null) {
+            rawTarget = target;
+        }
+        return invokers.get(new InvokerKey(rawTarget, method), key -> new RefreshInvoker(key.target, key.method));
+    }
+
+    public long size() {
+        return invokers.estimatedSize();
+    }
+
+    private static final class InvokerKey {
+
+        private final Object target;
+        private final Method method;
+
+        private InvokerKey(Object target, Method method) {
+            this.target = target;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof InvokerKey)) {
+                return false;
+            }
+            InvokerKey other = (InvokerKey) o;
+            return target == other.target && method.equals(other.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(target) + method.hashCode();
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.cache.springboot3cache.config;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 import java.io.Serializable;
 
 /**
  * 缓存值包装类
  * 用于存储缓存值及其创建时间，以便实现逻辑过期和自动刷新
+ * 序列化时固定字段顺序，头部（createTime、hash）在 value 之前，
+ * 这样值未变化的刷新只需改写头部，见 {@link #header(long, String)}
  */
+@JsonPropertyOrder({"createTime", "hash", "value"})
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class RefreshWrapper implements Serializable {
+    // 序列化后 JSON 的固定开头（GenericJackson2JsonRedisSerializer 写入的类型信息）
+    private static final String HEADER_PREFIX = "{\"@class\":\"" + RefreshWrapper.class.getName() + "\",\"createTime\":";
+
     // 实际缓存值
     private Object value;
     // 缓存创建时间（毫秒）
     private long createTime;
+    // 序列化后的值的摘要，用于判断刷新结果是否变化，可能为空（旧数据）
+    private String hash;
 
     /**
      * 默认构造函数，用于反序列化
@@ -29,6 +41,47 @@ public class RefreshWrapper implements Serializable {
         this.createTime = createTime;
     }
 
+    /**
+     * 构造函数
+     *
+     * @param value 缓存值
+     * @param createTime 创建时间
+     * @param hash 序列化后的值的摘要
+     */
+    public RefreshWrapper(Object value, long createTime, String hash) {
+        this.value = value;
+        this.createTime = createTime;
+        this.hash = hash;
+    }
+
+    /**
+     * 序列化后 JSON 中 value 之前的头部内容
+     *
+     * @param createTime 创建时间
+     * @param hash 值摘要
+     * @return 头部字符串
+     */
+    public static String header(long createTime, String hash) {
+        return createTimeHeader(createTime) + "\"hash\":\"" + hash + "\"";
+    }
+
+    /**
+     * 序列化后 JSON 的固定开头，以此开头的字节一定是 RefreshWrapper
+     */
+    static String headerPrefix() {
+        return HEADER_PREFIX;
+    }
+
+    /**
+     * 序列化后 JSON 中截止到 createTime 的头部内容，不依赖 hash 是否存在
+     *
+     * @param createTime 创建时间
+     * @return 头部字符串
+     */
+    public static String createTimeHeader(long createTime) {
+        return HEADER_PREFIX + createTime + ",";
+    }
+
     public Object getValue() {
         return value;
     }
@@ -44,4 +97,12 @@ public class RefreshWrapper implements Serializable {
     public void setCreateTime(long createTime) {
         this.createTime = createTime;
     }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
 }
@@ -0,0 +1,145 @@
+package com.cache.springboot3cache.config;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 缓存 Key / RefreshWrapper 的字节编解码
+ * 与 RedisTemplate 使用同一个值序列化器，写入的字节与原先完全兼容。
+ * 编码时整个包装对象只序列化一次：先写入占位摘要，再对 value 部分的字节计算摘要并原位回填，
+ * 不再为计算摘要单独序列化一次 value。
+ * 解码 RefreshWrapper 时直接指定目标类型：GenericJackson2JsonRedisSerializer 按 Object 反序列化时
+ * 会先把整个 JSON 解析成树来读取 @class，再完整解析一次；开头已经确定是 RefreshWrapper 时跳过这一次多余的解析。
+ */
+public class RefreshWrapperCodec {
+
+    // 摘要占位符，长度与 MD5 十六进制字符串一致
+    private static final String HASH_PLACEHOLDER = "00000000000000000000000000000000";
+    private static final byte[] VALUE_FIELD = ",\"value\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] WRAPPER_PREFIX = RefreshWrapper.headerPrefix().getBytes(StandardCharsets.UTF_8);
+
+    private final RedisSerializer<Object> valueSerializer;
+    // 值序列化器是 GenericJackson2JsonRedisSerializer 时用于按类型解码，否则为 null
+    private final GenericJackson2JsonRedisSerializer jsonSerializer;
+
+    public RefreshWrapperCodec(RedisSerializer<Object> valueSerializer) {
+        this.valueSerializer = valueSerializer;
+        this.jsonSerializer = valueSerializer instanceof GenericJackson2JsonRedisSerializer
+                ? (GenericJackson2JsonRedisSerializer) valueSerializer : null;
+    }
+
+    public byte[] encodeKey(String redisKey) {
+        return redisKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public Object decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        if (jsonSerializer != null && startsWith(bytes, WRAPPER_PREFIX)) {
+            return jsonSerializer.deserialize(bytes, RefreshWrapper.class);
+        }
+        return valueSerializer.deserialize(bytes);
+    }
+
+    /**
+     * 编码缓存值
+     *
+     * @param value 缓存值
+     * @param createTime 创建时间
+     * @param withHash 是否计算摘要（只有会刷新的缓存需要）
+     * @return 编码结果
+     */
+    public Encoded encode(Object value, long createTime, boolean withHash) {
+        if (!withHash) {
+            return new Encoded(valueSerializer.serialize(new RefreshWrapper(value, createTime)), null);
+        }
+
+        byte[] bytes = valueSerializer.serialize(new RefreshWrapper(value, createTime, HASH_PLACEHOLDER));
+        byte[] header = RefreshWrapper.header(createTime, HASH_PLACEHOLDER).getBytes(StandardCharsets.UTF_8);
+        int valueStart = header.length + VALUE_FIELD.length;
+        if (!startsWith(bytes, header, VALUE_FIELD)) {
+            // 布局与预期不符（序列化器配置变化），退回单独序列化 value 计算摘要
+            String hash = DigestUtils.md5DigestAsHex(valueSerializer.serialize(value));
+            return new Encoded(valueSerializer.serialize(new RefreshWrapper(value, createTime, hash)), hash);
+        }
+
+        // 对 value 部分计算摘要并回填到头部的占位符
+        String hash = md5Hex(bytes, valueStart, bytes.length - valueStart);
+        byte[] hashBytes = hash.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(hashBytes, 0, bytes, header.length - hashBytes.length - 1, hashBytes.length);
+        return new Encoded(bytes, hash);
+    }
+
+    private static String md5Hex(byte[] bytes, int offset, int length) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not supported", e);
+        }
+        digest.update(bytes, offset, length);
+        byte[] md5 = digest.digest();
+        char[] hex = new char[md5.length * 2];
+        for (int i = 0; i < md5.length; i++) {
+            hex[i * 2] = Character.forDigit((md5[i] >> 4) & 0xF, 16);
+            hex[i * 2 + 1] = Character.forDigit(md5[i] & 0xF, 16);
+        }
+        return new String(hex);
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] header, byte[] valueField) {
+        if (bytes == null || bytes.length < header.length + valueField.length) {
+            return false;
+        }
+        for (int i = 0; i < header.length; i++) {
+            if (bytes[i] != header[i]) {
+                return false;
+            }
+        }
+        for (int i = 0; i < valueField.length; i++) {
+            if (bytes[header.length + i] != valueField[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 编码结果：写入 Redis 的字节及 value 的摘要
+     */
+    public static final class Encoded {
+        private final byte[] bytes;
+        private final String hash;
+
+        Encoded(byte[] bytes, String hash) {
+            this.bytes = bytes;
+            this.hash = hash;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+    }
+}
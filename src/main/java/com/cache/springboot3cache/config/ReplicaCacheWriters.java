@@ -0,0 +1,113 @@
+package com.cache.springboot3cache.config;
+
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 按读取模式提供只读 RedisCacheWriter
+ * 每种从节点读取模式使用独立的 Lettuce 集群连接工厂（配置了 ReadFrom），首次使用时才创建，
+ * 避免没有缓存开启从节点读取时多建连接。主节点模式由调用方使用主 RedisCacheWriter。
+ * 从节点连接按 spring.data.redis.* 创建，主连接由 Redisson 配置（spring.redis.redisson.config/file）创建时
+ * 两者可能指向不同的 Redis，此时拒绝从节点读取模式，避免写入和读取落在不同的服务器上。
+ */
+public class ReplicaCacheWriters implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaCacheWriters.class);
+
+    private final RedisProperties redisProperties;
+    private final RedisCacheWriter masterCacheWriter;
+    // 主连接使用的 Redisson 配置来源，未配置时为 null
+    private final String redissonConfigSource;
+    private final Map<CacheReadMode, RedisCacheWriter> cacheWriters = new ConcurrentHashMap<>();
+    private final List<LettuceConnectionFactory> connectionFactories = new CopyOnWriteArrayList<>();
+
+    /**
+     * 构造函数
+     *
+     * @param redisProperties spring.data.redis.* 配置
+     * @param masterCacheWriter 主节点 RedisCacheWriter
+     * @param redissonConfigSource 主连接使用的 Redisson 配置来源（配置项名称），未配置时为 null
+     */
+    public ReplicaCacheWriters(RedisProperties redisProperties, RedisCacheWriter masterCacheWriter, String redissonConfigSource) {
+        this.redisProperties = redisProperties;
+        this.masterCacheWriter = masterCacheWriter;
+        this.redissonConfigSource = redissonConfigSource;
+    }
+
+    /**
+     * 获取指定读取模式对应的 RedisCacheWriter
+     *
+     * @param readMode 读取模式
+     * @return 用于读取的 RedisCacheWriter
+     */
+    public RedisCacheWriter cacheWriterFor(CacheReadMode readMode) {
+        if (readMode == null || readMode == CacheReadMode.MASTER) {
+            return masterCacheWriter;
+        }
+        return cacheWriters.computeIfAbsent(readMode, this::createCacheWriter);
+    }
+
+    private RedisCacheWriter createCacheWriter(CacheReadMode readMode) {
+        if (redissonConfigSource != null) {
+            throw new IllegalStateException("Read mode " + readMode + " is not supported when the Redis connection is configured by "
+                    + redissonConfigSource + ": replica connections are built from spring.data.redis.cluster.* and may point to a different server."
+                    + " Remove the read option from the cache name or configure the connection with spring.data.redis.*");
+        }
+        RedisProperties.Cluster cluster = redisProperties.getCluster();
+        if (cluster == null || cluster.getNodes() == null || cluster.getNodes().isEmpty()) {
+            // 非集群模式没有可路由的从节点信息，退回主节点读取
+            logger.warn("Read mode {} requires Redis Cluster (spring.data.redis.cluster.nodes), falling back to master reads", readMode);
+            return masterCacheWriter;
+        }
+
+        RedisClusterConfiguration clusterConfig = new RedisClusterConfiguration(cluster.getNodes());
+        if (cluster.getMaxRedirects() != null) {
+            clusterConfig.setMaxRedirects(cluster.getMaxRedirects());
+        }
+        clusterConfig.setUsername(redisProperties.getUsername());
+        clusterConfig.setPassword(redisProperties.getPassword());
+
+        // 开启自适应拓扑刷新，从节点切换或下线后能尽快感知
+        ClusterClientOptions clientOptions = ClusterClientOptions.builder()
+                .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder().enableAllAdaptiveRefreshTriggers().build())
+                .build();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder clientConfig = LettuceClientConfiguration.builder()
+                .readFrom(readMode.getReadFrom())
+                .clientOptions(clientOptions);
+        if (redisProperties.getTimeout() != null) {
+            clientConfig.commandTimeout(redisProperties.getTimeout());
+        }
+        if (redisProperties.getSsl().isEnabled()) {
+            clientConfig.useSsl();
+        }
+
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(clusterConfig, clientConfig.build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactories.add(connectionFactory);
+
+        logger.info("Created read cache writer for mode {} ({})", readMode, readMode.getReadFrom());
+        return RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
+    }
+
+    @Override
+    public void destroy() {
+        for (LettuceConnectionFactory connectionFactory : connectionFactories) {
+            connectionFactory.destroy();
+        }
+        connectionFactories.clear();
+        cacheWriters.clear();
+    }
+}
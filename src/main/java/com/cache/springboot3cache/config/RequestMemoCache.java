@@ -0,0 +1,149 @@
+package com.cache.springboot3cache.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 请求级缓存装饰器
+ * 同一个 Web 请求内相同（缓存名称, Key）的读取只访问一次底层缓存，后续直接返回第一次的结果。
+ * 结果保存在当前请求的属性中，请求结束即丢弃，不会跨请求返回旧值；写入和删除会使对应的结果失效。
+ */
+public class RequestMemoCache implements Cache {
+
+    private static final String MEMO_ATTRIBUTE = RequestMemoCache.class.getName() + ".MEMO";
+
+    private final Cache delegate;
+    private final RequestAttributes requestAttributes;
+
+    private RequestMemoCache(Cache delegate, RequestAttributes requestAttributes) {
+        this.delegate = delegate;
+        this.requestAttributes = requestAttributes;
+    }
+
+    /**
+     * 当前线程处于 Web 请求中时包装缓存，否则原样返回
+     */
+    public static Cache wrapIfInRequest(Cache cache) {
+        if (cache == null || cache instanceof RequestMemoCache) {
+            return cache;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null ? new RequestMemoCache(cache, attributes) : cache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ValueWrapper> memo() {
+        Map<String, ValueWrapper> memo = (Map<String, ValueWrapper>) requestAttributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            // 请求内可能有多个线程（如异步处理）共用
+            synchronized (requestAttributes) {
+                memo = (Map<String, ValueWrapper>) requestAttributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (memo == null) {
+                    memo = new ConcurrentHashMap<>();
+                    requestAttributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+                }
+            }
+        }
+        return memo;
+    }
+
+    private String memoKey(Object key) {
+        return delegate.getName() + "::" + key;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Map<String, ValueWrapper> memo = memo();
+        String memoKey = memoKey(key);
+        ValueWrapper value = memo.get(memoKey);
+        if (value != null) {
+            return value;
+        }
+        value = delegate.get(key);
+        // 未命中不记录，交给后续加载
+        if (value != null) {
+            memo.put(memoKey, value);
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object stored = value != null ? value.get() : null;
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Map<String, ValueWrapper> memo = memo();
+        String memoKey = memoKey(key);
+        ValueWrapper value = memo.get(memoKey);
+        if (value != null) {
+            return (T) value.get();
+        }
+        T loaded = delegate.get(key, valueLoader);
+        memo.put(memoKey, new SimpleValueWrapper(loaded));
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        memo().remove(memoKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        memo().remove(memoKey(key));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        memo().remove(memoKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = delegate.evictIfPresent(key);
+        memo().remove(memoKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        memo().keySet().removeIf(memoKey -> memoKey.startsWith(delegate.getName() + "::"));
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = delegate.invalidate();
+        memo().keySet().removeIf(memoKey -> memoKey.startsWith(delegate.getName() + "::"));
+        return invalidated;
+    }
+}
@@ -0,0 +1,195 @@
+package com.cache.springboot3cache.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个缓存的异步写入（write-behind）缓冲区
+ * put 先写入本地缓冲区并立即对读可见，由后台按批量（数量或时间）以 pipeline 写入 Redis。
+ * 同一 Key 多次写入只保留最后一次（last-writer-wins）；缓冲区满时由调用线程同步刷写一批，形成背压。
+ * Redis 不可用导致刷写没有进展时，缓冲区不再增长，新写入改为同步写入 Redis，失败时异常抛给调用方。
+ */
+public class WriteBehindBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindBuffer.class);
+    private static final long ERROR_LOG_INTERVAL_MS = 5000;
+
+    private final String name;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final int batchSize;
+    private final int maxPending;
+    // 待写入数量达到批量大小时的通知，由管理方触发后台刷写
+    private final Runnable batchReadyListener;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicLong lastErrorLogTime = new AtomicLong(0);
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder backpressureFlushes = new LongAdder();
+    // 缓冲区已满且刷写失败时改为同步写入的次数，以及其中失败的次数
+    private final LongAdder overflowWrites = new LongAdder();
+    private final LongAdder overflowFailures = new LongAdder();
+
+    public WriteBehindBuffer(String name, StringRedisTemplate stringRedisTemplate, int batchSize, int maxPending, Runnable batchReadyListener) {
+        this.name = name;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPending = Math.max(this.batchSize, maxPending);
+        this.batchReadyListener = batchReadyListener;
+    }
+
+    /**
+     * 写入缓冲区，同一 Key 覆盖尚未写入的旧值
+     */
+    public void enqueue(String redisKey, byte[] rawKey, byte[] bytes, long ttlMillis) {
+        // 缓冲区已满：调用线程同步刷写一批后再写入
+        while (pending.size() >= maxPending && !pending.containsKey(redisKey)) {
+            backpressureFlushes.increment();
+            if (flush() == 0) {
+                // 刷写没有进展：不再放入缓冲区，直接同步写入
+                writeThrough(rawKey, bytes, ttlMillis);
+                return;
+            }
+        }
+        Pending previous = pending.put(redisKey, new Pending(rawKey, bytes, System.currentTimeMillis() + ttlMillis));
+        enqueued.increment();
+        if (previous != null) {
+            coalesced.increment();
+        }
+        if (pending.size() >= batchSize) {
+            batchReadyListener.run();
+        }
+    }
+
+    /**
+     * 同步写入 Redis，失败时异常抛给调用方，与未开启异步写入时一致
+     */
+    private void writeThrough(byte[] rawKey, byte[] bytes, long ttlMillis) {
+        overflowWrites.increment();
+        try {
+            stringRedisTemplate.execute((RedisCallback<Object>) connection ->
+                    connection.stringCommands().set(rawKey, bytes, Expiration.milliseconds(Math.max(1, ttlMillis)), RedisStringCommands.SetOption.upsert()));
+        } catch (RuntimeException e) {
+            overflowFailures.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * 读取尚未写入 Redis 的值
+     *
+     * @return 待写入的字节，没有时返回 null
+     */
+    public byte[] get(String redisKey) {
+        Pending entry = pending.get(redisKey);
+        return entry != null ? entry.bytes : null;
+    }
+
+    /**
+     * 移除待写入条目；与刷写互斥，避免删除后被进行中的批量写入重新写回 Redis
+     */
+    public synchronized void remove(String redisKey) {
+        pending.remove(redisKey);
+    }
+
+    public synchronized void clear() {
+        pending.clear();
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * 以 pipeline 写入一批待写入条目，写入成功后才从缓冲区移除（期间仍可读到）
+     *
+     * @return 本次写入的条目数
+     */
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<String, Pending>> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (batch.size() >= batchSize) {
+                break;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Map.Entry<String, Pending> entry : batch) {
+                    Pending value = entry.getValue();
+                    // TTL 从写入缓冲区时开始计算
+                    long ttlMillis = Math.max(1, value.expireAt - now);
+                    connection.stringCommands().set(value.rawKey, value.bytes, Expiration.milliseconds(ttlMillis), RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // 写入失败的条目保留在缓冲区，下次刷写重试
+            long last = lastErrorLogTime.get();
+            if (now - last > ERROR_LOG_INTERVAL_MS && lastErrorLogTime.compareAndSet(last, now)) {
+                logger.error("Write-behind flush failed for cache '{}', {} entries pending", name, pending.size(), e);
+            }
+            return 0;
+        }
+
+        // 只移除未被更新的条目，刷写期间的新值留待下一批
+        for (Map.Entry<String, Pending> entry : batch) {
+            pending.remove(entry.getKey(), entry.getValue());
+        }
+        flushed.add(batch.size());
+        return batch.size();
+    }
+
+    /**
+     * 刷写全部待写入条目，用于关闭时
+     */
+    public void flushAll() {
+        int rounds = 0;
+        while (!pending.isEmpty() && flush() > 0) {
+            rounds++;
+        }
+        if (!pending.isEmpty()) {
+            logger.warn("Write-behind buffer '{}' dropped {} entries that could not be flushed after {} batches", name, pending.size(), rounds);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "pending=" + pending.size() + ", enqueued=" + enqueued.sum() + ", coalesced=" + coalesced.sum()
+                + ", flushed=" + flushed.sum() + ", backpressureFlushes=" + backpressureFlushes.sum()
+                + ", overflowWrites=" + overflowWrites.sum() + ", overflowFailures=" + overflowFailures.sum();
+    }
+
+    private static final class Pending {
+        private final byte[] rawKey;
+        private final byte[] bytes;
+        private final long expireAt;
+
+        private Pending(byte[] rawKey, byte[] bytes, long expireAt) {
+            this.rawKey = rawKey;
+            this.bytes = bytes;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.cache.springboot3cache.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 按缓存名称管理异步写入缓冲区
+ * 只有 cacheNames 带 #writebehind 选项的缓存才会创建；所有缓冲区共用一个后台线程，
+ * 按固定间隔刷写，待写入数量达到批量大小时立即刷写，应用关闭时刷写全部剩余条目。
+ */
+public class WriteBehindBuffers implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindBuffers.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final int batchSize;
+    private final int maxPending;
+    private final Map<String, WriteBehindBuffer> buffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    // 避免批量触发的刷写任务在队列中堆积
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    /**
+     * 构造函数
+     *
+     * @param stringRedisTemplate 用于 pipeline 写入
+     * @param batchSize 每批写入的最大条目数，待写入数量达到该值时立即刷写
+     * @param maxPending 每个缓存最多待写入的条目数，超出后由写入线程同步刷写
+     * @param flushIntervalMillis 定时刷写间隔（毫秒）
+     */
+    public WriteBehindBuffers(StringRedisTemplate stringRedisTemplate, int batchSize, int maxPending, long flushIntervalMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "springboot3CacheWriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushAll, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public WriteBehindBuffer bufferFor(String cacheName) {
+        return buffers.computeIfAbsent(cacheName, name -> new WriteBehindBuffer(name, stringRedisTemplate, batchSize, maxPending, this::scheduleFlush));
+    }
+
+    /**
+     * 某个缓冲区达到批量大小时通知后台线程立即刷写
+     */
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushScheduled.set(false);
+                    flushAll();
+                });
+            } catch (Exception e) {
+                // 已关闭，由关闭流程刷写
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flushAll() {
+        for (WriteBehindBuffer buffer : buffers.values()) {
+            try {
+                while (buffer.size() >= batchSize && buffer.flush() > 0) {
+                    // 积压超过一批时连续刷写
+                }
+                buffer.flush();
+            } catch (Exception e) {
+                logger.error("Write-behind flush failed for cache '{}'", buffer.getName(), e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        flusher.shutdown();
+        if (!flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+            flusher.shutdownNow();
+        }
+        for (WriteBehindBuffer buffer : buffers.values()) {
+            logger.info("Flushing write-behind buffer '{}' on shutdown: {}", buffer.getName(), buffer);
+            buffer.flushAll();
+        }
+    }
+}
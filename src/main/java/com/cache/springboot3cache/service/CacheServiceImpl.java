@@ -20,6 +20,11 @@ public class CacheServiceImpl implements CacheService {
      * 缓存名称：test
      * 过期时间：6秒
      * 刷新时间：3秒（超过3秒后访问会触发异步刷新）
+     * 可追加读取选项：test#6#3#replica 优先从从节点读取，test#6#3#nearest 读延迟最低的节点
+     * test#6#3#offheap 开启堆外本地缓存，适合较大的值
+     * test#6#3#writebehind 开启异步写入，写入先进入本地缓冲区再批量写入 Redis
+     * test#6#3#tinylfu 开启写入准入过滤，近期只请求过一次的 Key 加载后不写入 Redis；
+     * 只对 sync = true 的 @Cacheable 生效，非 sync 时 Spring 直接调用 put 写入，不经过过滤（启动时会告警）
      *
      * @param key 缓存键
      * @return 缓存值
@@ -0,0 +1,84 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.AdmissionFilter;
+import com.cache.springboot3cache.config.FrequencySketch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class AdmissionFilterTest {
+
+    @Test
+    public void testOnlyRepeatedKeysAdmitted() {
+        AdmissionFilter filter = new AdmissionFilter("test", 1024, 2);
+
+        // 第一次请求：不写入
+        filter.recordAccess("test::hot");
+        Assertions.assertFalse(filter.admit("test::hot"));
+
+        // 第二次请求：写入
+        filter.recordAccess("test::hot");
+        Assertions.assertTrue(filter.admit("test::hot"));
+
+        // 只访问一次的 Key 都不写入
+        for (int i = 0; i < 100; i++) {
+            filter.recordAccess("test::scan-" + i);
+            filter.admit("test::scan-" + i);
+        }
+
+        AdmissionFilter.Stats stats = filter.getStats();
+        Assertions.assertEquals(1, stats.getAdmitted());
+        // 允许少量哈希冲突导致的误判
+        Assertions.assertTrue(stats.getRejected() >= 95, "rejected=" + stats.getRejected());
+    }
+
+    @Test
+    public void testCountsSaturateAndAge() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        int hot = 42;
+        for (int i = 0; i < 20; i++) {
+            sketch.increment(hot);
+        }
+        Assertions.assertEquals(15, sketch.frequency(hot), "Counters saturate at 15");
+
+        // 宽度 16，累计 160 次访问后所有计数器减半
+        boolean aged = false;
+        for (int i = 0; i < 200 && !aged; i++) {
+            aged = sketch.increment(1000 + i);
+        }
+        Assertions.assertTrue(aged, "Sketch should age after sample size additions");
+        Assertions.assertTrue(sketch.frequency(hot) <= 7, "frequency=" + sketch.frequency(hot));
+    }
+
+    @Test
+    public void testConcurrentIncrementsNotLost() throws InterruptedException {
+        FrequencySketch sketch = new FrequencySketch(1 << 16);
+        int threads = 4;
+        int perThread = 3;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    sketch.increment(42);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        Assertions.assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // 不加锁的并发计数不丢失
+        Assertions.assertEquals(threads * perThread, sketch.frequency(42));
+    }
+}
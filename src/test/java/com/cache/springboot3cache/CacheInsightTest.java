@@ -0,0 +1,84 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.CacheInsight;
+import com.cache.springboot3cache.config.HotKeyTracker;
+import com.cache.springboot3cache.config.RedisClock;
+import com.cache.springboot3cache.config.RefreshWrapper;
+import com.cache.springboot3cache.loadtest.EmbeddedRedisStandIn;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+public class CacheInsightTest {
+
+    @Test
+    public void testHotKeysTopN() {
+        HotKeyTracker tracker = new HotKeyTracker(10, 1);
+        for (int i = 0; i < 1000; i++) {
+            tracker.recordAccess("c::hot");
+            if (i % 2 == 0) {
+                tracker.recordAccess("c::warm");
+            }
+            // 大量只访问一次的 Key 不会挤掉热点 Key
+            tracker.recordAccess("c::cold-" + i);
+        }
+        List<Map<String, Object>> top = tracker.top(2);
+        Assertions.assertEquals("c::hot", top.get(0).get("key"));
+        Assertions.assertEquals("c::warm", top.get(1).get("key"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReportSamplesRedis() throws Exception {
+        try (EmbeddedRedisStandIn redis = EmbeddedRedisStandIn.start()) {
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory("127.0.0.1", redis.getPort());
+            connectionFactory.afterPropertiesSet();
+            StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+            RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(connectionFactory);
+            redisTemplate.setKeySerializer(new StringRedisSerializer());
+            redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+            redisTemplate.afterPropertiesSet();
+            RedisClock clock = new RedisClock(null, 60_000);
+            try {
+                CacheInsight insight = new CacheInsight(stringRedisTemplate, clock, 10_000, 20, 0, 60_000, 5, 1);
+                HotKeyTracker hotKeys = insight.register("users", 60_000, 40_000);
+
+                long now = System.currentTimeMillis();
+                for (int i = 0; i < 50; i++) {
+                    // 一半刚写入，一半已超过刷新时间
+                    long createTime = i % 2 == 0 ? now : now - 50_000;
+                    redisTemplate.opsForValue().set("users::" + i, new RefreshWrapper("value-" + i, createTime), Duration.ofMinutes(1));
+                }
+                stringRedisTemplate.opsForValue().set("{users::7}~lock", "x");
+                stringRedisTemplate.opsForValue().set("other::1", "x");
+                hotKeys.recordAccess("users::1");
+
+                Map<String, Object> report = insight.report();
+                Assertions.assertEquals(true, report.get("scanComplete"));
+                Map<String, Object> users = (Map<String, Object>) ((Map<String, Object>) report.get("caches")).get("users");
+                Assertions.assertEquals(50L, users.get("entriesSeen"));
+                Assertions.assertEquals(20, users.get("sampledEntries"));
+                Assertions.assertTrue((Long) users.get("avgBytes") > 0);
+
+                Map<String, Long> ages = (Map<String, Long>) users.get("ageOfRefreshWindow");
+                Assertions.assertEquals(20L, ages.values().stream().mapToLong(Long::longValue).sum());
+                Assertions.assertTrue(ages.get("0-25%") > 0 && ages.get(">100%") > 0, "ages=" + ages);
+                Assertions.assertEquals("users::1", ((List<Map<String, Object>>) users.get("hotKeys")).get(0).get("key"));
+
+                // 最小间隔内返回同一份结果
+                Assertions.assertSame(report, insight.report());
+            } finally {
+                connectionFactory.destroy();
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.RefreshWrapper;
+import com.cache.springboot3cache.config.RefreshWrapperCodec;
+import com.cache.springboot3cache.loadtest.EmbeddedRedisStandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.DigestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 RedisTemplate 路径与 RedisCacheWriter 字节路径：验证两者数据格式互通，并输出每次操作的耗时和分配字节数。
+ * 写入对比不带摘要的原始写法和单独序列化 value 计算摘要的写法；读取对比 RedisTemplate 按 Object 反序列化和字节路径按 RefreshWrapper 类型解码。
+ * 压测方法标记为 benchmark，默认不运行，使用 mvn test -Pbenchmark -Dtest=CacheIoBenchmarkTest 执行。
+ */
+public class CacheIoBenchmarkTest {
+
+    private static final int WARMUP = 3_000;
+    private static final int ITERATIONS = 10_000;
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private static EmbeddedRedisStandIn redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<Object, Object> redisTemplate;
+    private static RedisCacheWriter cacheWriter;
+    private static RefreshWrapperCodec codec;
+    private static Object payload;
+
+    @BeforeAll
+    @SuppressWarnings("unchecked")
+    static void setUp() throws Exception {
+        redis = EmbeddedRedisStandIn.start();
+        connectionFactory = new LettuceConnectionFactory("127.0.0.1", redis.getPort());
+        connectionFactory.afterPropertiesSet();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+
+        cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
+        codec = new RefreshWrapperCodec((RedisSerializer<Object>) redisTemplate.getValueSerializer());
+
+        // 中等大小的对象，约 4KB
+        Map<String, Object> map = new HashMap<>();
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add("item-" + i + "-0123456789abcdef");
+        }
+        map.put("items", items);
+        map.put("id", 42);
+        map.put("name", "benchmark");
+        payload = map;
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @Test
+    public void testFormatCompatibility() {
+        long createTime = System.currentTimeMillis();
+
+        // 字节路径写入，RedisTemplate 读取
+        RefreshWrapperCodec.Encoded encoded = codec.encode(payload, createTime, true);
+        cacheWriter.put("bench", codec.encodeKey("bench::a"), encoded.getBytes(), TTL);
+        RefreshWrapper viaTemplate = (RefreshWrapper) redisTemplate.opsForValue().get("bench::a");
+        Assertions.assertNotNull(viaTemplate);
+        Assertions.assertEquals(payload, viaTemplate.getValue());
+        Assertions.assertEquals(createTime, viaTemplate.getCreateTime());
+        Assertions.assertEquals(encoded.getHash(), viaTemplate.getHash());
+
+        // RedisTemplate 写入，字节路径读取
+        redisTemplate.opsForValue().set("bench::b", new RefreshWrapper(payload, createTime), TTL);
+        RefreshWrapper viaWriter = (RefreshWrapper) codec.decode(cacheWriter.get("bench", codec.encodeKey("bench::b")));
+        Assertions.assertNotNull(viaWriter);
+        Assertions.assertEquals(payload, viaWriter.getValue());
+        Assertions.assertEquals(createTime, viaWriter.getCreateTime());
+
+        // 相同的值摘要稳定，不同的值摘要不同
+        Assertions.assertEquals(encoded.getHash(), codec.encode(payload, createTime + 1000, true).getHash());
+        Assertions.assertNotEquals(encoded.getHash(), codec.encode("other", createTime, true).getHash());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @SuppressWarnings("unchecked")
+    public void benchmarkGetAndPut() {
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        redisTemplate.opsForValue().set("bench::get", new RefreshWrapper(payload, System.currentTimeMillis()), TTL);
+        byte[] rawKey = codec.encodeKey("bench::get");
+
+        // 不带摘要的原始写法
+        Runnable templatePutNoHash = () -> redisTemplate.opsForValue().set("bench::put",
+                new RefreshWrapper(payload, System.currentTimeMillis()), TTL.toMillis(), TimeUnit.MILLISECONDS);
+        // RedisTemplate 写入，另外序列化一次 value 计算摘要
+        Runnable templatePut = () -> {
+            String hash = DigestUtils.md5DigestAsHex(valueSerializer.serialize(payload));
+            redisTemplate.opsForValue().set("bench::put", new RefreshWrapper(payload, System.currentTimeMillis(), hash), TTL.toMillis(), TimeUnit.MILLISECONDS);
+        };
+        Runnable writerPut = () -> {
+            RefreshWrapperCodec.Encoded encoded = codec.encode(payload, System.currentTimeMillis(), true);
+            cacheWriter.put("bench", codec.encodeKey("bench::put"), encoded.getBytes(), TTL);
+        };
+        Runnable templateGet = () -> redisTemplate.opsForValue().get("bench::get");
+        Runnable writerGet = () -> codec.decode(cacheWriter.get("bench", rawKey));
+
+        report("put via RedisTemplate (no hash)", templatePutNoHash);
+        report("put via RedisTemplate + hash", templatePut);
+        report("put via RedisCacheWriter", writerPut);
+        report("get via RedisTemplate", templateGet);
+        report("get via RedisCacheWriter", writerGet);
+    }
+
+    private static void report(String name, Runnable operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%-30s: %6.1f us/op, %7d bytes/op (caller thread)%n", name,
+                elapsed / 1000.0 / ITERATIONS, allocated / ITERATIONS);
+    }
+}
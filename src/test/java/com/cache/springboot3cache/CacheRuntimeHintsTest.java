@@ -0,0 +1,24 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.CacheRuntimeHints;
+import com.cache.springboot3cache.config.RefreshWrapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+public class CacheRuntimeHintsTest {
+
+    @Test
+    public void testHintsRegistered() {
+        RuntimeHints hints = new RuntimeHints();
+        new CacheRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        Assertions.assertTrue(RuntimeHintsPredicates.reflection().onType(RefreshWrapper.class)
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+        Assertions.assertTrue(RuntimeHintsPredicates.reflection().onType(GenericJackson2JsonRedisSerializer.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+    }
+}
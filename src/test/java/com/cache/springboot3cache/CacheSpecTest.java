@@ -0,0 +1,47 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.CacheReadMode;
+import com.cache.springboot3cache.config.CacheSpec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CacheSpecTest {
+
+    @Test
+    public void testParseRefreshSpec() {
+        CacheSpec spec = CacheSpec.parse("test3#15#1");
+        Assertions.assertNotNull(spec);
+        Assertions.assertEquals("test3", spec.getName());
+        Assertions.assertTrue(spec.isRefreshable());
+        Assertions.assertEquals(14, spec.getRefreshAgeSeconds());
+        Assertions.assertEquals(16, spec.getPhysicalTtlSeconds());
+        Assertions.assertEquals(CacheReadMode.MASTER, spec.getReadMode());
+    }
+
+    @Test
+    public void testParseExpireSpecWithOptions() {
+        CacheSpec spec = CacheSpec.parse("users#30#replica#offheap#tinylfu");
+        Assertions.assertNotNull(spec);
+        Assertions.assertEquals("users", spec.getName());
+        Assertions.assertFalse(spec.isRefreshable());
+        Assertions.assertEquals(30, spec.getPhysicalTtlSeconds());
+        Assertions.assertEquals(CacheReadMode.REPLICA_PREFERRED, spec.getReadMode());
+        Assertions.assertTrue(spec.isOffHeap());
+        Assertions.assertTrue(spec.isTinyLfu());
+        Assertions.assertFalse(spec.isWriteBehind());
+    }
+
+    @Test
+    public void testInvalidRefreshCorrected() {
+        // 刷新倒计时不小于过期时间时修正为过期时间的一半
+        CacheSpec spec = CacheSpec.parse("test#6#6");
+        Assertions.assertEquals(3, spec.getRefreshAgeSeconds());
+        Assertions.assertEquals(9, spec.getPhysicalTtlSeconds());
+    }
+
+    @Test
+    public void testPlainNames() {
+        Assertions.assertNull(CacheSpec.parse("basic"));
+        Assertions.assertNull(CacheSpec.parse("basic#replica"));
+    }
+}
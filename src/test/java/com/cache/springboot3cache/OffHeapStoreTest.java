@@ -0,0 +1,123 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.CustomRedisCache;
+import com.cache.springboot3cache.config.CustomRedisCacheSettings;
+import com.cache.springboot3cache.config.OffHeapStore;
+import com.cache.springboot3cache.config.RedisClock;
+import com.cache.springboot3cache.config.RefreshWrapperCodec;
+import com.cache.springboot3cache.loadtest.EmbeddedRedisStandIn;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+public class OffHeapStoreTest {
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testPutAndGet() {
+        OffHeapStore store = new OffHeapStore("test", 64 * 1024, 4, 60_000);
+        store.put("a", bytes("value-a"));
+        store.put("b", bytes("value-b"));
+
+        Assertions.assertArrayEquals(bytes("value-a"), store.get("a"));
+        Assertions.assertArrayEquals(bytes("value-b"), store.get("b"));
+        Assertions.assertNull(store.get("c"));
+
+        // 覆盖写入后读到新值，占用按最新值计算
+        store.put("a", bytes("value-a2"));
+        Assertions.assertArrayEquals(bytes("value-a2"), store.get("a"));
+        Assertions.assertEquals(bytes("value-a2").length + bytes("value-b").length, store.getStats().getUsedBytes());
+    }
+
+    @Test
+    public void testSegmentEvictionBoundsMemory() {
+        // 4 段，每段 1KB
+        OffHeapStore store = new OffHeapStore("test", 4 * 1024, 4, 60_000);
+        byte[] value = new byte[100];
+        for (int i = 0; i < 200; i++) {
+            store.put("k" + i, value);
+        }
+
+        OffHeapStore.Stats stats = store.getStats();
+        Assertions.assertTrue(stats.getUsedBytes() <= stats.getCapacityBytes(), "Used bytes should stay within capacity");
+        Assertions.assertTrue(stats.getEvictions() > 0, "Old segments should be evicted");
+        Assertions.assertNull(store.get("k0"), "Oldest entry should be evicted");
+        Assertions.assertArrayEquals(value, store.get("k199"));
+    }
+
+    @Test
+    public void testExpirationAndOversizedValues() throws InterruptedException {
+        OffHeapStore store = new OffHeapStore("test", 4 * 1024, 4, 50);
+        store.put("a", bytes("value-a"));
+        // 超过单段大小的值不缓存
+        store.put("big", new byte[2048]);
+        Assertions.assertNull(store.get("big"));
+
+        Thread.sleep(100);
+        Assertions.assertNull(store.get("a"), "Entry should expire");
+        Assertions.assertEquals(0, store.getStats().getEntries());
+    }
+
+    @Test
+    public void testOversizedOverwriteRemovesOldEntry() {
+        // 2 段，每段 2KB
+        OffHeapStore store = new OffHeapStore("test", 4 * 1024, 2, 60_000);
+        store.put("k", bytes("small-old"));
+        Assertions.assertArrayEquals(bytes("small-old"), store.get("k"));
+
+        // 新值超过单段大小不缓存，旧值也不能再被读到
+        store.put("k", new byte[3000]);
+        Assertions.assertNull(store.get("k"));
+        Assertions.assertEquals(0, store.getStats().getEntries());
+    }
+
+    @Test
+    public void testMaxTtlCapsLocalEntry() throws InterruptedException {
+        OffHeapStore store = new OffHeapStore("test", 4 * 1024, 4, 60_000);
+        store.put("a", bytes("value-a"), 50);
+        store.put("b", bytes("value-b"), 0);
+        Assertions.assertArrayEquals(bytes("value-a"), store.get("a"));
+        Assertions.assertNull(store.get("b"), "Already expired value should not be cached");
+
+        Thread.sleep(100);
+        Assertions.assertNull(store.get("a"), "Entry should expire with the shorter ttl");
+    }
+
+    @Test
+    public void testExpireOnlyCacheDoesNotOutliveRedis() throws Exception {
+        try (EmbeddedRedisStandIn redis = EmbeddedRedisStandIn.start()) {
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory("127.0.0.1", redis.getPort());
+            connectionFactory.afterPropertiesSet();
+            try {
+                RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
+                RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofSeconds(1));
+                // 本地存活时间远大于 Redis TTL，与 name#1#offheap 配置相同
+                OffHeapStore store = new OffHeapStore("expireOnly", 64 * 1024, 4, 60_000);
+                Cache cache = new CustomRedisCache(CustomRedisCacheSettings.builder("expireOnly", cacheWriter, config,
+                                new StringRedisTemplate(connectionFactory), new RefreshWrapperCodec(new GenericJackson2JsonRedisSerializer()), new RedisClock(null, 60_000))
+                        .offHeapStore(store)
+                        .build());
+
+                cache.put("k", "v");
+                Assertions.assertEquals("v", cache.get("k").get());
+                Assertions.assertEquals(1, store.getStats().getHits());
+
+                Thread.sleep(1_200);
+                Assertions.assertNull(cache.get("k"), "Local copy should expire together with Redis");
+            } finally {
+                connectionFactory.destroy();
+            }
+        }
+    }
+}
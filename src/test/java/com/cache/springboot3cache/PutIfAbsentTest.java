@@ -0,0 +1,141 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.CustomRedisCache;
+import com.cache.springboot3cache.config.CustomRedisCacheSettings;
+import com.cache.springboot3cache.config.RedisClock;
+import com.cache.springboot3cache.config.RefreshBackoff;
+import com.cache.springboot3cache.config.RefreshWrapper;
+import com.cache.springboot3cache.config.RefreshWrapperCodec;
+import com.cache.springboot3cache.loadtest.EmbeddedRedisStandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多个 CustomRedisCache 实例模拟多个节点，验证 putIfAbsent 的原子性以及并发加载时收敛到同一个值
+ */
+public class PutIfAbsentTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private static EmbeddedRedisStandIn redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+    private static RedisTemplate<Object, Object> redisTemplate;
+    private static RedisCacheWriter cacheWriter;
+    private static RefreshWrapperCodec codec;
+    private static RedisClock clock;
+
+    @BeforeAll
+    @SuppressWarnings("unchecked")
+    static void setUp() throws Exception {
+        redis = EmbeddedRedisStandIn.start();
+        connectionFactory = new LettuceConnectionFactory("127.0.0.1", redis.getPort());
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+
+        cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
+        codec = new RefreshWrapperCodec((RedisSerializer<Object>) redisTemplate.getValueSerializer());
+        clock = new RedisClock(stringRedisTemplate, 60_000);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (clock != null) {
+            clock.destroy();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    private static Cache newNode(String name) {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig().entryTtl(TTL);
+        return new CustomRedisCache(CustomRedisCacheSettings.builder(name, cacheWriter, config, stringRedisTemplate, codec, clock)
+                .refresh(20, 60, Runnable::run, new RefreshBackoff(1000, 60000, 300))
+                .build());
+    }
+
+    @Test
+    public void testPutIfAbsentKeepsExistingValue() {
+        String name = "pia-" + UUID.randomUUID();
+        Cache node1 = newNode(name);
+        Cache node2 = newNode(name);
+
+        Assertions.assertNull(node1.putIfAbsent("k", "first"), "Absent key should be written");
+        RefreshWrapper stored = (RefreshWrapper) redisTemplate.opsForValue().get(name + "::k");
+        Assertions.assertNotNull(stored);
+
+        Cache.ValueWrapper existing = node2.putIfAbsent("k", "second");
+        Assertions.assertNotNull(existing, "Present key should return existing value");
+        Assertions.assertEquals("first", existing.get());
+
+        // 已有值及其创建时间不变，并带有过期时间
+        RefreshWrapper after = (RefreshWrapper) redisTemplate.opsForValue().get(name + "::k");
+        Assertions.assertEquals("first", after.getValue());
+        Assertions.assertEquals(stored.getCreateTime(), after.getCreateTime());
+        Long ttl = stringRedisTemplate.getExpire(name + "::k", TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(ttl != null && ttl > 0 && ttl <= TTL.toMillis(), "ttl=" + ttl);
+    }
+
+    @Test
+    public void testConcurrentLoadersConverge() throws Exception {
+        String name = "pia-" + UUID.randomUUID();
+        int nodes = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(nodes);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < nodes; i++) {
+                Cache node = newNode(name);
+                String loaded = "node-" + i;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return node.get("k", () -> loaded);
+                }));
+            }
+            start.countDown();
+
+            Set<String> results = new HashSet<>();
+            for (Future<String> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, results.size(), "All nodes should return the same value: " + results);
+            RefreshWrapper stored = (RefreshWrapper) redisTemplate.opsForValue().get(name + "::k");
+            Assertions.assertEquals(results.iterator().next(), stored.getValue());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
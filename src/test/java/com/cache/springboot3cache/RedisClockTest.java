@@ -0,0 +1,102 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.RedisClock;
+import com.cache.springboot3cache.loadtest.EmbeddedRedisStandIn;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisClusterServerCommands;
+import org.springframework.data.redis.connection.RedisNode;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class RedisClockTest {
+
+    @Test
+    public void testTracksRedisServerTime() throws Exception {
+        try (EmbeddedRedisStandIn redis = EmbeddedRedisStandIn.start()) {
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory("127.0.0.1", redis.getPort());
+            connectionFactory.afterPropertiesSet();
+            RedisClock clock = new RedisClock(new StringRedisTemplate(connectionFactory), 60_000);
+            try {
+                Assertions.assertTrue(clock.sync(), "Should sync against Redis TIME");
+                Assertions.assertTrue(clock.getLastRttMicros() >= 0);
+
+                StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+                Long serverTime = template.execute((RedisCallback<Long>) connection -> connection.serverCommands().time(TimeUnit.MILLISECONDS));
+                // 同一台机器上的 Redis，与服务器时间的差应在几十毫秒内
+                Assertions.assertTrue(Math.abs(clock.currentTimeMillis() - serverTime) < 50,
+                        "clock=" + clock.currentTimeMillis() + ", server=" + serverTime);
+            } finally {
+                clock.destroy();
+                connectionFactory.destroy();
+            }
+        }
+    }
+
+    @Test
+    public void testFallsBackToLocalTime() {
+        RedisClock clock = new RedisClock(null, 60_000);
+        Assertions.assertEquals(0, clock.getOffsetMillis());
+        Assertions.assertTrue(Math.abs(clock.currentTimeMillis() - System.currentTimeMillis()) < 5);
+    }
+
+    @Test
+    public void testCorrectsSkewedLocalClock() throws Exception {
+        try (EmbeddedRedisStandIn redis = EmbeddedRedisStandIn.start()) {
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory("127.0.0.1", redis.getPort());
+            connectionFactory.afterPropertiesSet();
+            // 本机时钟快 10 秒
+            long skewMillis = 10_000;
+            RedisClock clock = new RedisClock(new StringRedisTemplate(connectionFactory), 60_000, () -> System.currentTimeMillis() + skewMillis);
+            try {
+                Assertions.assertTrue(clock.sync());
+                Assertions.assertTrue(Math.abs(clock.getOffsetMillis() + skewMillis) < 50, "offset=" + clock.getOffsetMillis());
+
+                StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+                Long serverTime = template.execute((RedisCallback<Long>) connection -> connection.serverCommands().time(TimeUnit.MILLISECONDS));
+                Assertions.assertTrue(Math.abs(clock.currentTimeMillis() - serverTime) < 50,
+                        "clock=" + clock.currentTimeMillis() + ", server=" + serverTime);
+            } finally {
+                clock.destroy();
+                connectionFactory.destroy();
+            }
+        }
+    }
+
+    @Test
+    public void testClusterUsesLowestSlotMaster() {
+        RedisClusterNode high = RedisClusterNode.newRedisClusterNode().listeningAt("10.0.0.2", 6379)
+                .promotedAs(RedisNode.NodeType.MASTER).serving(new RedisClusterNode.SlotRange(5461, 16383)).build();
+        RedisClusterNode low = RedisClusterNode.newRedisClusterNode().listeningAt("10.0.0.1", 6379)
+                .promotedAs(RedisNode.NodeType.MASTER).serving(new RedisClusterNode.SlotRange(0, 5460)).build();
+        RedisClusterNode replica = RedisClusterNode.newRedisClusterNode().listeningAt("10.0.0.3", 6379)
+                .promotedAs(RedisNode.NodeType.REPLICA).build();
+
+        RedisClusterConnection connection = Mockito.mock(RedisClusterConnection.class);
+        RedisClusterServerCommands serverCommands = Mockito.mock(RedisClusterServerCommands.class);
+        Mockito.when(connection.clusterGetNodes()).thenReturn(List.of(high, replica, low));
+        Mockito.when(connection.serverCommands()).thenReturn(serverCommands);
+        Mockito.when(serverCommands.time(Mockito.any(RedisClusterNode.class), Mockito.eq(TimeUnit.MILLISECONDS)))
+                .thenAnswer(invocation -> System.currentTimeMillis());
+        StringRedisTemplate template = Mockito.mock(StringRedisTemplate.class);
+        Mockito.when(template.execute(Mockito.<RedisCallback<Object>>any()))
+                .thenAnswer(invocation -> invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection));
+
+        RedisClock clock = new RedisClock(template, 60_000);
+        try {
+            Assertions.assertTrue(clock.sync());
+            Mockito.verify(serverCommands, Mockito.atLeastOnce()).time(low, TimeUnit.MILLISECONDS);
+            Mockito.verify(serverCommands, Mockito.never()).time(high, TimeUnit.MILLISECONDS);
+            Mockito.verify(serverCommands, Mockito.never()).time(TimeUnit.MILLISECONDS);
+        } finally {
+            clock.destroy();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.CustomRedisCache;
+import com.cache.springboot3cache.config.CustomRedisCacheSettings;
+import com.cache.springboot3cache.config.RedisClock;
+import com.cache.springboot3cache.config.RefreshBackoff;
+import com.cache.springboot3cache.config.RefreshInvoker;
+import com.cache.springboot3cache.config.RefreshWrapper;
+import com.cache.springboot3cache.config.RefreshWrapperCodec;
+import com.cache.springboot3cache.loadtest.EmbeddedRedisStandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多个 CustomRedisCache 实例模拟多个节点，验证刷新失败次数在节点之间共享，退避时间持续指数增长，
+ * 以及刷新失败时旧值按 stale-if-error 窗口延长过期时间
+ */
+public class RefreshBackoffTest {
+
+    private static final long INITIAL_BACKOFF_MILLIS = 2_000;
+    private static final long TTL_MILLIS = 60_000;
+    private static final long STALE_IF_ERROR_SECONDS = 30;
+    private static final long STALE_IF_ERROR_MILLIS = STALE_IF_ERROR_SECONDS * 1000;
+
+    private static EmbeddedRedisStandIn redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+    private static RedisTemplate<Object, Object> redisTemplate;
+    private static RedisCacheWriter cacheWriter;
+    private static RefreshWrapperCodec codec;
+    private static RedisClock clock;
+
+    public static class Loader {
+
+        private final boolean fail;
+
+        public Loader(boolean fail) {
+            this.fail = fail;
+        }
+
+        public String load() {
+            if (fail) {
+                throw new IllegalStateException("backend down");
+            }
+            return "fresh";
+        }
+    }
+
+    @BeforeAll
+    @SuppressWarnings("unchecked")
+    static void setUp() throws Exception {
+        redis = EmbeddedRedisStandIn.start();
+        connectionFactory = new LettuceConnectionFactory("127.0.0.1", redis.getPort());
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+
+        cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
+        codec = new RefreshWrapperCodec((RedisSerializer<Object>) redisTemplate.getValueSerializer());
+        clock = new RedisClock(null, 60_000);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    private static Cache newNode(String name, boolean fail) throws Exception {
+        return newNode(name, fail, 0);
+    }
+
+    private static Cache newNode(String name, boolean fail, long staleIfErrorSeconds) throws Exception {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMillis(TTL_MILLIS));
+        RefreshInvoker invoker = new RefreshInvoker(new Loader(fail), Loader.class.getMethod("load"));
+        // 每个节点使用独立的 RefreshBackoff，本地没有失败记录
+        CustomRedisCacheSettings settings = CustomRedisCacheSettings.builder(name, cacheWriter, config, stringRedisTemplate, codec, clock)
+                .refresh(20, 60, Runnable::run, new RefreshBackoff(INITIAL_BACKOFF_MILLIS, 60_000, staleIfErrorSeconds))
+                .build();
+        return new CustomRedisCache(settings, invoker, new Object[0]);
+    }
+
+    @Test
+    public void testFailureCountSharedAcrossNodes() throws Exception {
+        String name = "backoff-" + UUID.randomUUID();
+        String redisKey = name + "::k";
+        String lockKey = "{" + redisKey + "}~lock";
+        String backoffKey = "{" + redisKey + "}~backoff";
+        redisTemplate.opsForValue().set(redisKey, new RefreshWrapper("old", System.currentTimeMillis() - 25_000), Duration.ofSeconds(60));
+
+        // 节点 1 第一次失败：持有锁 initial
+        Assertions.assertEquals("old", newNode(name, true).get("k").get());
+        long firstHold = stringRedisTemplate.getExpire(lockKey, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(firstHold > 0 && firstHold <= INITIAL_BACKOFF_MILLIS, "firstHold=" + firstHold);
+
+        // 锁到期后节点 2 重试再次失败：按共享计数退避 2 * initial，而不是从头开始
+        stringRedisTemplate.delete(lockKey);
+        Assertions.assertEquals("old", newNode(name, true).get("k").get());
+        long secondHold = stringRedisTemplate.getExpire(lockKey, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(secondHold > INITIAL_BACKOFF_MILLIS && secondHold <= 2 * INITIAL_BACKOFF_MILLIS, "secondHold=" + secondHold);
+        Assertions.assertEquals("2", stringRedisTemplate.opsForValue().get(backoffKey));
+
+        // 节点 3 刷新成功：清除共享计数并释放锁
+        stringRedisTemplate.delete(lockKey);
+        newNode(name, false).get("k");
+        Assertions.assertEquals("fresh", ((RefreshWrapper) redisTemplate.opsForValue().get(redisKey)).getValue());
+        Assertions.assertFalse(Boolean.TRUE.equals(stringRedisTemplate.hasKey(backoffKey)));
+        Assertions.assertFalse(Boolean.TRUE.equals(stringRedisTemplate.hasKey(lockKey)));
+    }
+
+    @Test
+    public void testStaleIfErrorExtendsUpToWindow() throws Exception {
+        String name = "stale-" + UUID.randomUUID();
+        String redisKey = name + "::k";
+        long createTime = System.currentTimeMillis() - 25_000;
+        redisTemplate.opsForValue().set(redisKey, new RefreshWrapper("old", createTime), Duration.ofMillis(TTL_MILLIS - 25_000));
+
+        // 刷新失败：过期时间延长到 创建时间 + TTL + 窗口
+        Assertions.assertEquals("old", newNode(name, true, STALE_IF_ERROR_SECONDS).get("k").get());
+        long staleUntil = createTime + TTL_MILLIS + STALE_IF_ERROR_MILLIS;
+        long extended = stringRedisTemplate.getExpire(redisKey, TimeUnit.MILLISECONDS);
+        long expected = staleUntil - System.currentTimeMillis();
+        Assertions.assertTrue(extended > expected - 2_000 && extended <= expected + 1_000, "extended=" + extended + ", expected=" + expected);
+    }
+
+    @Test
+    public void testStaleIfErrorNeverShrinksTtl() throws Exception {
+        String name = "stale-" + UUID.randomUUID();
+        String redisKey = name + "::k";
+        redisTemplate.opsForValue().set(redisKey, new RefreshWrapper("old", System.currentTimeMillis() - 25_000), Duration.ofSeconds(200));
+
+        // 剩余 TTL 已经超过窗口上限，不会被缩短
+        Assertions.assertEquals("old", newNode(name, true, STALE_IF_ERROR_SECONDS).get("k").get());
+        long ttl = stringRedisTemplate.getExpire(redisKey, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(ttl > 190_000, "ttl=" + ttl);
+    }
+
+    @Test
+    public void testStaleIfErrorNotExtendedAfterWindow() throws Exception {
+        String name = "stale-" + UUID.randomUUID();
+        String redisKey = name + "::k";
+        // 创建时间 + TTL + 窗口 已经过去
+        redisTemplate.opsForValue().set(redisKey, new RefreshWrapper("old", System.currentTimeMillis() - TTL_MILLIS - STALE_IF_ERROR_MILLIS - 5_000),
+                Duration.ofSeconds(10));
+
+        Assertions.assertEquals("old", newNode(name, true, STALE_IF_ERROR_SECONDS).get("k").get());
+        long ttl = stringRedisTemplate.getExpire(redisKey, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(ttl > 0 && ttl <= 10_000, "ttl=" + ttl);
+    }
+}
@@ -0,0 +1,66 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.MyCacheResolver;
+import com.cache.springboot3cache.loadtest.EmbeddedRedisStandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+/**
+ * 通过真实的缓存代理验证：启动时预先创建的刷新调用器在运行时刷新中被复用，不会再创建第二个
+ */
+@SpringBootTest(properties = "cache.demo.poller.enabled=false")
+public class RefreshInvokerStartupTest {
+
+    private static EmbeddedRedisStandIn redis;
+
+    @Autowired
+    private TestCacheService testCacheService;
+
+    @Autowired
+    private CacheResolver cacheResolver;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) throws IOException {
+        redis = EmbeddedRedisStandIn.start();
+        registry.add("spring.redis.redisson.config", redis::redissonConfig);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @Test
+    public void testPreparedInvokerReusedByRefresh() throws Exception {
+        Assertions.assertTrue(AopUtils.isAopProxy(testCacheService), "Service should be a caching proxy");
+        MyCacheResolver resolver = (MyCacheResolver) cacheResolver;
+        long prepared = resolver.getRefreshInvokerCount();
+        Assertions.assertTrue(prepared > 0, "Refresh invokers should be prepared at startup");
+
+        // test#6#6 被修正为 3 秒后刷新
+        String key = "startup-" + System.nanoTime();
+        String first = testCacheService.getRefresh6_6(key);
+        Assertions.assertEquals(1, testCacheService.getCounter("refresh6_6"));
+        Thread.sleep(3_200);
+        Assertions.assertEquals(first, testCacheService.getRefresh6_6(key));
+
+        // 等待异步刷新执行
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (testCacheService.getCounter("refresh6_6") < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(2, testCacheService.getCounter("refresh6_6"), "Refresh should have invoked the method");
+        Assertions.assertEquals(prepared, resolver.getRefreshInvokerCount(), "Refresh should reuse the prepared invoker");
+    }
+}
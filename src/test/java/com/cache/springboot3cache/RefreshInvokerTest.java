@@ -0,0 +1,65 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.RefreshInvoker;
+import com.cache.springboot3cache.config.RefreshInvokers;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RefreshInvokerTest {
+
+    public static class Greeter {
+
+        public String greet(String name, int times) {
+            return name.repeat(times);
+        }
+
+        public String fail(String message) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    @Test
+    public void testInvokesRawTargetWithArgs() throws Exception {
+        AtomicInteger intercepted = new AtomicInteger();
+        ProxyFactory proxyFactory = new ProxyFactory(new Greeter());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            intercepted.incrementAndGet();
+            return invocation.proceed();
+        });
+        Greeter proxy = (Greeter) proxyFactory.getProxy();
+
+        Method greet = Greeter.class.getMethod("greet", String.class, int.class);
+        RefreshInvoker invoker = new RefreshInvoker(proxy, greet);
+        Assertions.assertEquals("abab", invoker.invoke(new Object[]{"ab", 2}));
+        Assertions.assertEquals("xyz", invoker.invoke(new Object[]{"xyz", 1}));
+        // 直接调用原始对象，不再经过代理上的切面
+        Assertions.assertEquals(0, intercepted.get());
+    }
+
+    @Test
+    public void testRethrowsOriginalException() throws Exception {
+        RefreshInvoker invoker = new RefreshInvoker(new Greeter(), Greeter.class.getMethod("fail", String.class));
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> invoker.invoke(new Object[]{"boom"}));
+        Assertions.assertEquals("boom", e.getMessage());
+    }
+
+    @Test
+    public void testInvokersCachedPerTargetAndMethod() throws Exception {
+        RefreshInvokers invokers = new RefreshInvokers();
+        Greeter first = new Greeter();
+        Greeter second = new Greeter();
+        Method greet = Greeter.class.getMethod("greet", String.class, int.class);
+
+        RefreshInvoker invoker = invokers.get(first, greet);
+        Assertions.assertSame(invoker, invokers.get(first, Greeter.class.getMethod("greet", String.class, int.class)));
+        Assertions.assertNotSame(invoker, invokers.get(second, greet));
+        Assertions.assertNotSame(invoker, invokers.get(first, Greeter.class.getMethod("fail", String.class)));
+    }
+}
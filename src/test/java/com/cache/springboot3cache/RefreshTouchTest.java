@@ -0,0 +1,154 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.CustomRedisCache;
+import com.cache.springboot3cache.config.CustomRedisCacheSettings;
+import com.cache.springboot3cache.config.RedisClock;
+import com.cache.springboot3cache.config.RefreshBackoff;
+import com.cache.springboot3cache.config.RefreshInvoker;
+import com.cache.springboot3cache.config.RefreshWrapper;
+import com.cache.springboot3cache.config.RefreshWrapperCodec;
+import com.cache.springboot3cache.loadtest.EmbeddedRedisStandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 刷新结果与缓存值相同时只改写头部并续期（TOUCH_SCRIPT），其余情况整体写入
+ */
+public class RefreshTouchTest {
+
+    private static final long TTL_MILLIS = 60_000;
+
+    private static EmbeddedRedisStandIn redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+    private static RedisCacheWriter redisCacheWriter;
+    private static RefreshWrapperCodec codec;
+    private static RedisClock clock;
+
+    public static class Loader {
+        public String load() {
+            return "fresh";
+        }
+    }
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        redis = EmbeddedRedisStandIn.start();
+        connectionFactory = new LettuceConnectionFactory("127.0.0.1", redis.getPort());
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        redisCacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
+        codec = new RefreshWrapperCodec(new GenericJackson2JsonRedisSerializer());
+        clock = new RedisClock(null, 60_000);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    /**
+     * 写入一份已到刷新时间的旧值，剩余 TTL 为 30 秒
+     */
+    private static String seed(String name, Object value, long createTime, boolean withHash) {
+        String redisKey = name + "::k";
+        redisCacheWriter.put(name, codec.encodeKey(redisKey), codec.encode(value, createTime, withHash).getBytes(), Duration.ofSeconds(30));
+        return redisKey;
+    }
+
+    /**
+     * 读取一次触发刷新，返回记录调用的写入器
+     */
+    private static RedisCacheWriter refresh(String name) throws Exception {
+        RedisCacheWriter cacheWriter = Mockito.mock(RedisCacheWriter.class, AdditionalAnswers.delegatesTo(redisCacheWriter));
+        CustomRedisCacheSettings settings = CustomRedisCacheSettings.builder(name, cacheWriter,
+                        RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMillis(TTL_MILLIS)), stringRedisTemplate, codec, clock)
+                .refresh(20, 60, Runnable::run, new RefreshBackoff(1000, 60_000, 0))
+                .build();
+        CustomRedisCache cache = new CustomRedisCache(settings, new RefreshInvoker(new Loader(), Loader.class.getMethod("load")), new Object[0]);
+        cache.get("k");
+        return cacheWriter;
+    }
+
+    private static RefreshWrapper read(String redisKey) {
+        byte[] bytes = stringRedisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(redisKey.getBytes(StandardCharsets.UTF_8)));
+        return (RefreshWrapper) codec.decode(bytes);
+    }
+
+    private static void verifyFullWrite(RedisCacheWriter cacheWriter, boolean expected) {
+        Mockito.verify(cacheWriter, Mockito.times(expected ? 1 : 0)).put(Mockito.anyString(), ArgumentMatchers.any(byte[].class),
+                ArgumentMatchers.any(byte[].class), Mockito.any(Duration.class));
+    }
+
+    @Test
+    public void testUnchangedValueTouchesHeaderOnly() throws Exception {
+        String name = "touch-" + UUID.randomUUID();
+        long createTime = clock.currentTimeMillis() - 25_000;
+        String redisKey = seed(name, "fresh", createTime, true);
+
+        RedisCacheWriter cacheWriter = refresh(name);
+
+        // 没有整体写入，只改写了创建时间并续期到完整 TTL
+        verifyFullWrite(cacheWriter, false);
+        RefreshWrapper touched = read(redisKey);
+        Assertions.assertEquals("fresh", touched.getValue());
+        Assertions.assertTrue(touched.getCreateTime() > createTime, "createTime should be renewed");
+        long ttl = stringRedisTemplate.getExpire(redisKey, TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(ttl > TTL_MILLIS - 5_000, "ttl=" + ttl);
+    }
+
+    @Test
+    public void testChangedValueFallsBackToFullWrite() throws Exception {
+        String name = "touch-" + UUID.randomUUID();
+        String redisKey = seed(name, "old", clock.currentTimeMillis() - 25_000, true);
+
+        verifyFullWrite(refresh(name), true);
+        Assertions.assertEquals("fresh", read(redisKey).getValue());
+    }
+
+    @Test
+    public void testLegacyEntryWithoutHashFallsBackToFullWrite() throws Exception {
+        String name = "touch-" + UUID.randomUUID();
+        String redisKey = seed(name, "fresh", clock.currentTimeMillis() - 25_000, false);
+
+        verifyFullWrite(refresh(name), true);
+        RefreshWrapper written = read(redisKey);
+        Assertions.assertEquals("fresh", written.getValue());
+        Assertions.assertNotNull(written.getHash(), "Full write should add the hash");
+    }
+
+    @Test
+    public void testHeaderLengthChangeFallsBackToFullWrite() throws Exception {
+        String name = "touch-" + UUID.randomUUID();
+        // 旧的创建时间位数少于当前时间，新旧头部长度不同，无法原位覆盖
+        long createTime = 999_999_999_999L;
+        String redisKey = seed(name, "fresh", createTime, true);
+
+        verifyFullWrite(refresh(name), true);
+        RefreshWrapper written = read(redisKey);
+        Assertions.assertEquals("fresh", written.getValue());
+        Assertions.assertTrue(written.getCreateTime() > createTime);
+    }
+}
@@ -0,0 +1,103 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.CacheReadMode;
+import com.cache.springboot3cache.config.CustomRedisCache;
+import com.cache.springboot3cache.config.CustomRedisCacheSettings;
+import com.cache.springboot3cache.config.RedisClock;
+import com.cache.springboot3cache.config.RefreshBackoff;
+import com.cache.springboot3cache.config.RefreshInvoker;
+import com.cache.springboot3cache.config.RefreshWrapperCodec;
+import com.cache.springboot3cache.config.ReplicaCacheWriters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalMatchers;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+public class ReplicaCacheWritersTest {
+
+    @Test
+    public void testReplicaModeRejectedWithRedissonConfig() {
+        RedisProperties redisProperties = new RedisProperties();
+        RedisProperties.Cluster cluster = new RedisProperties.Cluster();
+        cluster.setNodes(List.of("127.0.0.1:7000"));
+        redisProperties.setCluster(cluster);
+        RedisCacheWriter master = Mockito.mock(RedisCacheWriter.class);
+
+        ReplicaCacheWriters writers = new ReplicaCacheWriters(redisProperties, master, "spring.redis.redisson.config");
+        try {
+            Assertions.assertSame(master, writers.cacheWriterFor(CacheReadMode.MASTER));
+            // 从节点连接可能指向另一个 Redis，直接报错而不是读写分离到不同服务器
+            Assertions.assertThrows(IllegalStateException.class, () -> writers.cacheWriterFor(CacheReadMode.REPLICA_PREFERRED));
+            Assertions.assertThrows(IllegalStateException.class, () -> writers.cacheWriterFor(CacheReadMode.NEAREST));
+        } finally {
+            writers.destroy();
+        }
+    }
+
+    @Test
+    public void testFallsBackToMasterWithoutCluster() {
+        RedisCacheWriter master = Mockito.mock(RedisCacheWriter.class);
+        ReplicaCacheWriters writers = new ReplicaCacheWriters(new RedisProperties(), master, null);
+        Assertions.assertSame(master, writers.cacheWriterFor(CacheReadMode.REPLICA_PREFERRED));
+        writers.destroy();
+    }
+
+    public static class Loader {
+        public String load() {
+            return "fresh";
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReplicaCacheReadsFromReplicaAndWritesToMaster() throws Exception {
+        RedisCacheWriter master = Mockito.mock(RedisCacheWriter.class);
+        RedisCacheWriter replica = Mockito.mock(RedisCacheWriter.class);
+        StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(valueOperations.setIfAbsent(Mockito.anyString(), Mockito.anyString(), Mockito.any(Duration.class))).thenReturn(true);
+
+        RefreshWrapperCodec codec = new RefreshWrapperCodec(new GenericJackson2JsonRedisSerializer());
+        RedisClock clock = new RedisClock(null, 60_000);
+        byte[] rawKey = "users::1".getBytes(StandardCharsets.UTF_8);
+        // 从节点上是一份已到刷新时间的旧值
+        Mockito.when(replica.get("users", rawKey)).thenReturn(codec.encode("old", clock.currentTimeMillis() - 25_000, true).getBytes());
+
+        CustomRedisCacheSettings settings = CustomRedisCacheSettings.builder("users", master,
+                        RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofSeconds(60)), stringRedisTemplate, codec, clock)
+                .readCacheWriter(replica)
+                .refresh(20, 60, Runnable::run, new RefreshBackoff(1000, 60_000, 0))
+                .build();
+        CustomRedisCache cache = new CustomRedisCache(settings, new RefreshInvoker(new Loader(), Loader.class.getMethod("load")), new Object[0]);
+
+        // 读取走从节点，触发的刷新加锁和写回走主节点
+        Assertions.assertEquals("old", cache.get(1).get());
+        Mockito.verify(replica).get("users", rawKey);
+        Mockito.verify(master, Mockito.never()).get(Mockito.anyString(), ArgumentMatchers.any(byte[].class));
+        Mockito.verify(valueOperations).setIfAbsent(Mockito.eq("{users::1}~lock"), Mockito.anyString(), Mockito.any(Duration.class));
+        Mockito.verify(master).put(Mockito.eq("users"), AdditionalMatchers.aryEq(rawKey), ArgumentMatchers.any(byte[].class), Mockito.any(Duration.class));
+
+        // put 和 putIfAbsent 也只写主节点
+        cache.put(2, "v2");
+        Mockito.verify(master).put(Mockito.eq("users"), AdditionalMatchers.aryEq("users::2".getBytes(StandardCharsets.UTF_8)),
+                ArgumentMatchers.any(byte[].class), Mockito.any(Duration.class));
+        cache.putIfAbsent(3, "v3");
+        Mockito.verify(stringRedisTemplate).execute(Mockito.<RedisScript<byte[]>>any(), Mockito.<RedisSerializer<?>>any(), Mockito.<RedisSerializer<byte[]>>any(),
+                Mockito.eq(List.of("users::3")), Mockito.any(), Mockito.any());
+        Mockito.verifyNoMoreInteractions(replica);
+    }
+}
@@ -0,0 +1,84 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.RequestMemoCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RequestMemoCacheTest {
+
+    /**
+     * 统计对底层缓存的读取次数
+     */
+    private static class CountingCache extends ConcurrentMapCache {
+        private final AtomicInteger reads = new AtomicInteger();
+
+        CountingCache(String name) {
+            super(name);
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            reads.incrementAndGet();
+            return super.lookup(key);
+        }
+    }
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static ServletRequestAttributes startRequest() {
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        return attributes;
+    }
+
+    @Test
+    public void testRepeatedReadsHitUnderlyingCacheOnce() {
+        CountingCache underlying = new CountingCache("test");
+        underlying.put("k", "v1");
+
+        startRequest();
+        for (int i = 0; i < 3; i++) {
+            // 每次调用都重新解析缓存，请求内仍共用同一份结果
+            Cache cache = RequestMemoCache.wrapIfInRequest(underlying);
+            Assertions.assertEquals("v1", cache.get("k").get());
+            Assertions.assertEquals("v1", cache.get("k", () -> "loaded"));
+        }
+        Assertions.assertEquals(1, underlying.reads.get());
+
+        // 新请求不复用上一个请求的结果
+        underlying.put("k", "v2");
+        startRequest();
+        Assertions.assertEquals("v2", RequestMemoCache.wrapIfInRequest(underlying).get("k").get());
+    }
+
+    @Test
+    public void testWritesInvalidateMemo() {
+        CountingCache underlying = new CountingCache("test");
+        underlying.put("k", "v1");
+        startRequest();
+
+        Cache cache = RequestMemoCache.wrapIfInRequest(underlying);
+        Assertions.assertEquals("v1", cache.get("k").get());
+        cache.put("k", "v2");
+        Assertions.assertEquals("v2", cache.get("k").get());
+        cache.evict("k");
+        Assertions.assertNull(cache.get("k"));
+    }
+
+    @Test
+    public void testNotWrappedOutsideRequest() {
+        CountingCache underlying = new CountingCache("test");
+        Assertions.assertSame(underlying, RequestMemoCache.wrapIfInRequest(underlying));
+    }
+}
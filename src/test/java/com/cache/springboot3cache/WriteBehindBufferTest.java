@@ -0,0 +1,159 @@
+package com.cache.springboot3cache;
+
+import com.cache.springboot3cache.config.WriteBehindBuffer;
+import com.cache.springboot3cache.loadtest.EmbeddedRedisStandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WriteBehindBufferTest {
+
+    private static EmbeddedRedisStandIn redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private final AtomicInteger batchReady = new AtomicInteger();
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        redis = EmbeddedRedisStandIn.start();
+        connectionFactory = new LettuceConnectionFactory("127.0.0.1", redis.getPort());
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @BeforeEach
+    void flushRedis() {
+        stringRedisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void enqueue(WriteBehindBuffer buffer, String key, String value) {
+        buffer.enqueue(key, bytes(key), bytes(value), 60_000);
+    }
+
+    @Test
+    public void testPendingReadsAndCoalescing() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer("test", stringRedisTemplate, 10, 100, batchReady::incrementAndGet);
+        enqueue(buffer, "wb::a", "v1");
+        enqueue(buffer, "wb::a", "v2");
+        enqueue(buffer, "wb::b", "v1");
+
+        // 写入 Redis 前即可读到，同一 Key 只保留最后一次写入
+        Assertions.assertArrayEquals(bytes("v2"), buffer.get("wb::a"));
+        Assertions.assertEquals(2, buffer.size());
+        Assertions.assertNull(stringRedisTemplate.opsForValue().get("wb::a"));
+
+        Assertions.assertEquals(2, buffer.flush());
+        Assertions.assertEquals(0, buffer.size());
+        Assertions.assertEquals("v2", stringRedisTemplate.opsForValue().get("wb::a"));
+        Assertions.assertEquals("v1", stringRedisTemplate.opsForValue().get("wb::b"));
+        Long ttl = stringRedisTemplate.getExpire("wb::a", TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(ttl != null && ttl > 0 && ttl <= 60_000, "ttl=" + ttl);
+        Assertions.assertEquals(0, batchReady.get());
+    }
+
+    @Test
+    public void testBatchReadyAndBackpressure() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer("test", stringRedisTemplate, 2, 4, batchReady::incrementAndGet);
+        enqueue(buffer, "wb::1", "1");
+        Assertions.assertEquals(0, batchReady.get());
+        enqueue(buffer, "wb::2", "2");
+        Assertions.assertEquals(1, batchReady.get());
+
+        // 积压达到上限后，写入线程同步刷写一批，积压不超过上限
+        for (int i = 3; i <= 10; i++) {
+            enqueue(buffer, "wb::" + i, String.valueOf(i));
+            Assertions.assertTrue(buffer.size() <= 4);
+        }
+        Assertions.assertTrue(stringRedisTemplate.keys("wb::*").size() >= 6);
+
+        buffer.flushAll();
+        Assertions.assertEquals(0, buffer.size());
+        Assertions.assertEquals(10, stringRedisTemplate.keys("wb::*").size());
+    }
+
+    @Test
+    public void testRemoveDropsPendingWrite() {
+        WriteBehindBuffer buffer = new WriteBehindBuffer("test", stringRedisTemplate, 10, 100, batchReady::incrementAndGet);
+        enqueue(buffer, "wb::a", "v1");
+        buffer.remove("wb::a");
+        Assertions.assertNull(buffer.get("wb::a"));
+        Assertions.assertEquals(0, buffer.flush());
+        Assertions.assertNull(stringRedisTemplate.opsForValue().get("wb::a"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBufferStaysBoundedWhenRedisIsDown() {
+        StringRedisTemplate failingTemplate = Mockito.mock(StringRedisTemplate.class);
+        Mockito.when(failingTemplate.executePipelined(Mockito.any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        Mockito.when(failingTemplate.execute(Mockito.any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        WriteBehindBuffer buffer = new WriteBehindBuffer("test", failingTemplate, 2, 4, batchReady::incrementAndGet);
+        for (int i = 1; i <= 4; i++) {
+            enqueue(buffer, "wb::" + i, String.valueOf(i));
+        }
+
+        // 缓冲区已满且刷写失败：新写入同步写入并把错误抛给调用方，缓冲区不再增长
+        for (int i = 5; i <= 10; i++) {
+            String key = "wb::" + i;
+            Assertions.assertThrows(RedisConnectionFailureException.class, () -> enqueue(buffer, key, "x"));
+            Assertions.assertNull(buffer.get(key));
+        }
+        Assertions.assertEquals(4, buffer.size());
+        Assertions.assertTrue(buffer.toString().contains("overflowWrites=6, overflowFailures=6"), buffer.toString());
+
+        // 已在缓冲区中的 Key 仍可覆盖
+        enqueue(buffer, "wb::1", "updated");
+        Assertions.assertArrayEquals(bytes("updated"), buffer.get("wb::1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOverflowWritesThroughWhenFlushMakesNoProgress() {
+        StringRedisTemplate pipelineFailing = Mockito.spy(stringRedisTemplate);
+        Mockito.doThrow(new RedisConnectionFailureException("pipeline down"))
+                .when(pipelineFailing).executePipelined(Mockito.any(RedisCallback.class));
+
+        WriteBehindBuffer buffer = new WriteBehindBuffer("test", pipelineFailing, 2, 2, batchReady::incrementAndGet);
+        enqueue(buffer, "wb::1", "1");
+        enqueue(buffer, "wb::2", "2");
+        enqueue(buffer, "wb::3", "3");
+
+        Assertions.assertEquals(2, buffer.size());
+        Assertions.assertNull(buffer.get("wb::3"));
+        Assertions.assertEquals("3", stringRedisTemplate.opsForValue().get("wb::3"));
+        Long ttl = stringRedisTemplate.getExpire("wb::3", TimeUnit.MILLISECONDS);
+        Assertions.assertTrue(ttl != null && ttl > 0 && ttl <= 60_000, "ttl=" + ttl);
+    }
+}
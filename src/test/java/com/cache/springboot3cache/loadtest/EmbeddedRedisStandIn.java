@@ -0,0 +1,51 @@
+package com.cache.springboot3cache.loadtest;
+
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * 进程内启动的 Redis（embedded-redis 自带的 redis-server 可执行文件），无需容器或远程 Redis
+ */
+public class EmbeddedRedisStandIn implements AutoCloseable {
+
+    private final int port;
+    private final RedisServer server;
+
+    private EmbeddedRedisStandIn(int port, RedisServer server) {
+        this.port = port;
+        this.server = server;
+    }
+
+    public static EmbeddedRedisStandIn start() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        RedisServer server = RedisServer.newRedisServer()
+                .port(port)
+                .bind("127.0.0.1")
+                .setting("save \"\"")
+                .setting("appendonly no")
+                .build();
+        server.start();
+        return new EmbeddedRedisStandIn(port, server);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Redisson 单机配置，设置到 spring.redis.redisson.config 后优先于 spring.data.redis.cluster.nodes
+     */
+    public String redissonConfig() {
+        return "singleServerConfig:\n  address: \"redis://127.0.0.1:" + port + "\"";
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.stop();
+    }
+}
@@ -0,0 +1,74 @@
+package com.cache.springboot3cache.loadtest;
+
+import com.cache.springboot3cache.config.CacheInsightEndpoint;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 使用嵌入式 Redis 运行一次短时间压测，验证压测工具可用并输出报告
+ */
+@SpringBootTest(properties = {
+        "cache.demo.poller.enabled=false",
+        "cache.loadtest.threads=16",
+        "cache.loadtest.key-space=1000",
+        "cache.loadtest.zipf-skew=1.0",
+        "cache.loadtest.warmup-seconds=1",
+        "cache.loadtest.duration-seconds=5",
+        "cache.loadtest.origin-latency-ms=2"
+})
+@ActiveProfiles("loadtest")
+public class LoadHarnessTest {
+
+    private static EmbeddedRedisStandIn redis;
+
+    @Autowired
+    private LoadTestHarness loadTestHarness;
+
+    @Autowired
+    private LoadTestSettings loadTestSettings;
+
+    @Autowired
+    private CacheInsightEndpoint cacheInsightEndpoint;
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) throws IOException {
+        redis = EmbeddedRedisStandIn.start();
+        registry.add("spring.redis.redisson.config", redis::redissonConfig);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @Test
+    public void testZipfLoad() throws Exception {
+        LoadTestHarness.Report report = loadTestHarness.run(loadTestSettings);
+        System.out.println("Load test report: " + report);
+
+        Assertions.assertTrue(report.getRequests() > 0, "Should have issued requests");
+        Assertions.assertEquals(0, report.getErrors(), "Should not fail requests");
+        // 热点 Key 命中缓存，源数据加载次数应远小于请求数
+        Assertions.assertTrue(report.getOriginCalls() < report.getRequests() / 2,
+                "Origin calls should be well below request count");
+
+        // 压测后的缓存使用情况：能采样到压测缓存的条目和热点 Key
+        Map<String, Object> insight = cacheInsightEndpoint.report();
+        System.out.println("Cache insight: " + insight);
+        Map<?, ?> caches = (Map<?, ?>) insight.get("caches");
+        Map<?, ?> loadtest = (Map<?, ?>) caches.get("loadtest");
+        Assertions.assertNotNull(loadtest, "Load test cache should be reported");
+        Assertions.assertTrue(((Number) loadtest.get("entriesSeen")).longValue() > 0);
+    }
+}
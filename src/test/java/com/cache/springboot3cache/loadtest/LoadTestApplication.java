@@ -0,0 +1,27 @@
+package com.cache.springboot3cache.loadtest;
+
+import com.cache.springboot3cache.Application;
+import org.springframework.boot.SpringApplication;
+
+/**
+ * 命令行压测入口，启动嵌入式 Redis 后以 loadtest profile 运行应用，压测完成后退出
+ * 运行：./mvnw test-compile spring-boot:test-run -Dspring-boot.run.arguments="--cache.loadtest.threads=64 --cache.loadtest.zipf-skew=1.1"
+ */
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        try (EmbeddedRedisStandIn redis = EmbeddedRedisStandIn.start()) {
+            String[] defaults = {
+                    "--spring.profiles.active=loadtest",
+                    "--cache.loadtest.cli=true",
+                    "--cache.demo.poller.enabled=false",
+                    "--spring.main.web-application-type=none",
+                    "--spring.redis.redisson.config=" + redis.redissonConfig()
+            };
+            String[] all = new String[defaults.length + args.length];
+            System.arraycopy(defaults, 0, all, 0, defaults.length);
+            System.arraycopy(args, 0, all, defaults.length, args.length);
+            SpringApplication.run(Application.class, all).close();
+        }
+    }
+}
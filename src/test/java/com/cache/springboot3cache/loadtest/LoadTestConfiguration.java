@@ -0,0 +1,43 @@
+package com.cache.springboot3cache.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 压测配置，仅在 loadtest profile 下生效
+ * 参数通过 cache.loadtest.* 配置，cache.loadtest.cli=true 时启动后自动执行一次压测
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestConfiguration.class);
+
+    @Bean
+    @ConfigurationProperties(prefix = "cache.loadtest")
+    public LoadTestSettings loadTestSettings() {
+        return new LoadTestSettings();
+    }
+
+    @Bean
+    public LoadTestService loadTestService() {
+        return new LoadTestService();
+    }
+
+    @Bean
+    public LoadTestHarness loadTestHarness(LoadTestService loadTestService) {
+        return new LoadTestHarness(loadTestService);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.loadtest.cli", havingValue = "true")
+    public CommandLineRunner loadTestRunner(LoadTestHarness loadTestHarness, LoadTestSettings loadTestSettings) {
+        return args -> logger.info("Load test report: {}", loadTestHarness.run(loadTestSettings));
+    }
+}
@@ -0,0 +1,217 @@
+package com.cache.springboot3cache.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 缓存压测工具
+ * 多线程按 Zipf 分布选择 Key 调用 LoadTestService 的缓存方法，
+ * 统计吞吐、p50/p99/p999 延迟、源数据加载次数和刷新次数，用于衡量击穿保护和刷新行为。
+ */
+public class LoadTestHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestHarness.class);
+
+    private final LoadTestService service;
+
+    public LoadTestHarness(LoadTestService service) {
+        this.service = service;
+    }
+
+    public Report run(LoadTestSettings settings) throws Exception {
+        logger.info("Starting load test: {}", settings);
+        ZipfGenerator zipf = new ZipfGenerator(settings.getKeySpace(), settings.getZipfSkew());
+        Function<String, String> operation;
+        switch (settings.getMode().toLowerCase()) {
+            case "expire": operation = service::getExpire; break;
+            case "offheap": operation = service::getOffHeap; break;
+            case "writebehind": operation = service::getWriteBehind; break;
+            default: operation = service::getRefresh; break;
+        }
+        service.setOriginLatencyMs(settings.getOriginLatencyMs());
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds());
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+        LongAdder errors = new LongAdder();
+
+        List<Future<long[]>> futures = new ArrayList<>();
+        ExecutorService pool = newExecutor(settings);
+        try {
+            for (int i = 0; i < settings.getThreads(); i++) {
+                futures.add(pool.submit(() -> {
+                    LatencyBuffer latencies = new LatencyBuffer();
+                    long now;
+                    while ((now = System.nanoTime()) < deadline) {
+                        String key = "k" + zipf.next();
+                        try {
+                            operation.apply(key);
+                        } catch (RuntimeException e) {
+                            if (now >= measureFrom) {
+                                errors.increment();
+                            }
+                        }
+                        if (now >= measureFrom) {
+                            latencies.add(System.nanoTime() - now);
+                        }
+                    }
+                    return latencies.toArray();
+                }));
+            }
+
+            // 预热结束后清零源数据计数，只统计测量窗口
+            long waitNanos = measureFrom - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            service.reset();
+
+            List<long[]> perThread = new ArrayList<>();
+            for (Future<long[]> future : futures) {
+                perThread.add(future.get());
+            }
+            Report report = new Report(settings, merge(perThread), errors.sum(), service.getOriginCalls(), service.getRefreshCalls());
+            logger.info("Load test finished: {}", report);
+            return report;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 虚拟线程需要 JDK 21+，通过反射创建，当前 JDK 不支持时退回固定大小的平台线程池
+     */
+    private ExecutorService newExecutor(LoadTestSettings settings) {
+        if (settings.isVirtualThreads()) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual threads are not available on Java {}, using platform threads", Runtime.version().feature());
+            }
+        }
+        return Executors.newFixedThreadPool(settings.getThreads());
+    }
+
+    private static long[] merge(List<long[]> perThread) {
+        int total = 0;
+        for (long[] values : perThread) {
+            total += values.length;
+        }
+        long[] merged = new long[total];
+        int offset = 0;
+        for (long[] values : perThread) {
+            System.arraycopy(values, 0, merged, offset, values.length);
+            offset += values.length;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * 单线程使用的延迟记录缓冲区
+     */
+    private static final class LatencyBuffer {
+        private long[] values = new long[1 << 14];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * 压测结果
+     */
+    public static final class Report {
+        private final LoadTestSettings settings;
+        private final long requests;
+        private final long errors;
+        private final double throughput;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long p999Micros;
+        private final long maxMicros;
+        private final long originCalls;
+        private final long refreshCalls;
+
+        Report(LoadTestSettings settings, long[] sortedLatencies, long errors, long originCalls, long refreshCalls) {
+            this.settings = settings;
+            this.requests = sortedLatencies.length;
+            this.errors = errors;
+            this.throughput = requests / (double) Math.max(1, settings.getDurationSeconds());
+            this.p50Micros = percentile(sortedLatencies, 0.50);
+            this.p99Micros = percentile(sortedLatencies, 0.99);
+            this.p999Micros = percentile(sortedLatencies, 0.999);
+            this.maxMicros = sortedLatencies.length == 0 ? 0 : sortedLatencies[sortedLatencies.length - 1] / 1000;
+            this.originCalls = originCalls;
+            this.refreshCalls = refreshCalls;
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000;
+        }
+
+        public LoadTestSettings getSettings() {
+            return settings;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughput() {
+            return throughput;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getP999Micros() {
+            return p999Micros;
+        }
+
+        public long getOriginCalls() {
+            return originCalls;
+        }
+
+        public long getRefreshCalls() {
+            return refreshCalls;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d, errors=%d, throughput=%.0f ops/s, p50=%dus, p99=%dus, p999=%dus, max=%dus, originCalls=%d, refreshCalls=%d",
+                    requests, errors, throughput, p50Micros, p99Micros, p999Micros, maxMicros, originCalls, refreshCalls);
+        }
+    }
+}
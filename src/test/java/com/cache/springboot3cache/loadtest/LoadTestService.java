@@ -0,0 +1,71 @@
+package com.cache.springboot3cache.loadtest;
+
+import org.springframework.cache.annotation.Cacheable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测用的缓存服务，结构与 CacheServiceImpl 一致
+ * 统计源数据加载次数，其中由缓存刷新线程发起的计为刷新次数
+ */
+public class LoadTestService {
+
+    private static final String REFRESH_THREAD_PREFIX = "springboot3CacheRefresh-";
+
+    private final LongAdder originCalls = new LongAdder();
+    private final LongAdder refreshCalls = new LongAdder();
+    private volatile long originLatencyMs;
+
+    @Cacheable(cacheNames = "loadtest#6#2", key = "#key", sync = true)
+    public String getRefresh(String key) {
+        return load(key);
+    }
+
+    @Cacheable(cacheNames = "loadtestExpire#5", key = "#key", sync = true)
+    public String getExpire(String key) {
+        return load(key);
+    }
+
+    @Cacheable(cacheNames = "loadtestOffHeap#6#2#offheap", key = "#key", sync = true)
+    public String getOffHeap(String key) {
+        return load(key);
+    }
+
+    @Cacheable(cacheNames = "loadtestWriteBehind#6#2#writebehind", key = "#key", sync = true)
+    public String getWriteBehind(String key) {
+        return load(key);
+    }
+
+    private String load(String key) {
+        originCalls.increment();
+        if (Thread.currentThread().getName().startsWith(REFRESH_THREAD_PREFIX)) {
+            refreshCalls.increment();
+        }
+        if (originLatencyMs > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(originLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return "value-" + key + "-" + System.nanoTime();
+    }
+
+    public void setOriginLatencyMs(long originLatencyMs) {
+        this.originLatencyMs = originLatencyMs;
+    }
+
+    public long getOriginCalls() {
+        return originCalls.sum();
+    }
+
+    public long getRefreshCalls() {
+        return refreshCalls.sum();
+    }
+
+    public void reset() {
+        originCalls.reset();
+        refreshCalls.reset();
+    }
+}
@@ -0,0 +1,94 @@
+package com.cache.springboot3cache.loadtest;
+
+/**
+ * 压测参数，对应 cache.loadtest.* 配置
+ */
+public class LoadTestSettings {
+    // 并发线程数
+    private int threads = 32;
+    // 是否使用虚拟线程（需要 JDK 21+，否则退回平台线程）
+    private boolean virtualThreads = false;
+    // Key 空间大小
+    private int keySpace = 10_000;
+    // Zipf 倾斜系数，0 为均匀分布
+    private double zipfSkew = 0.99;
+    // 预热时长（秒），预热期间的请求不计入统计
+    private int warmupSeconds = 2;
+    // 压测时长（秒）
+    private int durationSeconds = 10;
+    // 模拟源数据加载耗时（毫秒）
+    private long originLatencyMs = 5;
+    // 压测的缓存方法：refresh（逻辑过期+异步刷新）、expire（仅过期）或 offheap（刷新+堆外本地缓存）或 writebehind（刷新+异步写入）
+    private String mode = "refresh";
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getKeySpace() {
+        return keySpace;
+    }
+
+    public void setKeySpace(int keySpace) {
+        this.keySpace = keySpace;
+    }
+
+    public double getZipfSkew() {
+        return zipfSkew;
+    }
+
+    public void setZipfSkew(double zipfSkew) {
+        this.zipfSkew = zipfSkew;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public void setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public long getOriginLatencyMs() {
+        return originLatencyMs;
+    }
+
+    public void setOriginLatencyMs(long originLatencyMs) {
+        this.originLatencyMs = originLatencyMs;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public String toString() {
+        return "threads=" + threads + ", virtualThreads=" + virtualThreads + ", keySpace=" + keySpace
+                + ", zipfSkew=" + zipfSkew + ", warmup=" + warmupSeconds + "s, duration=" + durationSeconds
+                + "s, originLatency=" + originLatencyMs + "ms, mode=" + mode;
+    }
+}
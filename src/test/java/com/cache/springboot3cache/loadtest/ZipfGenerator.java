@@ -0,0 +1,45 @@
+package com.cache.springboot3cache.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipf 分布的 Key 序号生成器
+ * 序号 k（从 0 开始）被选中的概率与 1 / (k + 1)^skew 成正比，skew = 0 时退化为均匀分布。
+ * 预先计算累积分布，取样时二分查找，线程安全。
+ */
+public class ZipfGenerator {
+
+    private final double[] cdf;
+
+    /**
+     * @param keySpace Key 数量
+     * @param skew 倾斜系数，常用 0.8 ~ 1.2
+     */
+    public ZipfGenerator(int keySpace, double skew) {
+        if (keySpace <= 0) {
+            throw new IllegalArgumentException("keySpace must be positive");
+        }
+        this.cdf = new double[keySpace];
+        double sum = 0;
+        for (int i = 0; i < keySpace; i++) {
+            sum += 1.0 / Math.pow(i + 1, skew);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < keySpace; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    /**
+     * @return 下一个 Key 序号，范围 [0, keySpace)
+     */
+    public int next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        int index = Arrays.binarySearch(cdf, u);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cdf.length - 1);
+    }
+}